@@ -0,0 +1,45 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.carga;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades del sistema carga.* (ver el perfil carga del pom)
+ */
+@Value
+@Builder
+public class ConfiguracionCarga {
+
+    int usuarios;
+    int roles;
+    int auditorias;
+    int concurrencia;
+    Duration calentamiento;
+    Duration duracion;
+    boolean hilosVirtuales;
+    Path reporte;
+
+    public static ConfiguracionCarga desdePropiedadesDelSistema() {
+        ConfiguracionCarga configuracion = ConfiguracionCarga.builder()
+                .usuarios(Integer.getInteger("carga.usuarios", 2000))
+                .roles(Integer.getInteger("carga.roles", 20))
+                .auditorias(Integer.getInteger("carga.auditorias", 200_000))
+                .concurrencia(Integer.getInteger("carga.concurrencia", 32))
+                .calentamiento(Duration.parse(System.getProperty("carga.calentamiento", "PT15S")))
+                .duracion(Duration.parse(System.getProperty("carga.duracion", "PT60S")))
+                .hilosVirtuales(Boolean.parseBoolean(System.getProperty("carga.hilos-virtuales", "false")))
+                .reporte(Path.of(System.getProperty("carga.reporte", "target/carga/reporte-carga.json")))
+                .build();
+
+        if (configuracion.usuarios < 1 || configuracion.roles < 1 || configuracion.concurrencia < 1) {
+            throw new IllegalArgumentException("carga.usuarios, carga.roles y carga.concurrencia deben ser mayores que cero");
+        }
+        if (configuracion.duracion.isZero() || configuracion.duracion.isNegative()) {
+            throw new IllegalArgumentException("carga.duracion debe ser positiva");
+        }
+        return configuracion;
+    }
+}
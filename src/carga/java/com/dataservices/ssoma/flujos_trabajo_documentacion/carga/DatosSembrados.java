@@ -0,0 +1,26 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.carga;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Identificadores de los datos sembrados que usan los escenarios para armar sus solicitudes
+ */
+@Value
+public class DatosSembrados {
+
+    List<UUID> rolIds;
+    List<UUID> usuarioIds;
+    List<UUID> personaIds;
+    List<String> nombresUsuario;
+    String password;
+    LocalDateTime auditoriasDesde;
+    LocalDateTime auditoriasHasta;
+
+    public int cantidadUsuarios() {
+        return usuarioIds.size();
+    }
+}
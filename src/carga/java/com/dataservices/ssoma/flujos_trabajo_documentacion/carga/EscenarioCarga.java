@@ -0,0 +1,164 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.carga;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tipos de solicitud de la mezcla de carga. El peso es la proporción relativa de cada tipo;
+ * método y patrón de URI identifican sus muestras en la métrica ssoma.http.sentencias.sql.
+ * Los escenarios condicionales simulan clientes que sondean: repiten la última ETag recibida
+ * para la misma URI en If-None-Match.
+ */
+@Getter
+@RequiredArgsConstructor
+enum EscenarioCarga {
+
+    LISTAR_USUARIOS(12, "GET", "/api/v1/usuarios") {
+        @Override
+        HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia) {
+            return get(base + "/api/v1/usuarios?size=20&page=" + aleatorio.nextInt(paginas(datos.cantidadUsuarios(), 20)));
+        }
+    },
+    OBTENER_USUARIO(18, "GET", "/api/v1/usuarios/{usuarioId}") {
+        @Override
+        HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia) {
+            return get(base + "/api/v1/usuarios/" + alAzar(datos.getUsuarioIds(), aleatorio));
+        }
+
+        @Override
+        boolean isCondicional() {
+            return true;
+        }
+    },
+    BUSCAR_USUARIOS(8, "GET", "/api/v1/usuarios/buscar") {
+        @Override
+        HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia) {
+            // Subcadena del número de usuario: coincide con una parte de los sembrados
+            String nombre = String.format("%04d", aleatorio.nextInt(10_000));
+            return get(base + "/api/v1/usuarios/buscar?size=20&nombre=" + codificar(nombre));
+        }
+    },
+    LISTAR_ROLES(8, "GET", "/api/v1/roles/lista") {
+        @Override
+        HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia) {
+            return get(base + "/api/v1/roles/lista");
+        }
+
+        @Override
+        boolean isCondicional() {
+            return true;
+        }
+    },
+    ROLES_CON_CANTIDAD_USUARIOS(4, "GET", "/api/v1/roles/con-cantidad-usuarios") {
+        @Override
+        HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia) {
+            return get(base + "/api/v1/roles/con-cantidad-usuarios");
+        }
+    },
+    LISTAR_AUDITORIAS(8, "GET", "/api/v1/auditorias") {
+        @Override
+        HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia) {
+            return get(base + "/api/v1/auditorias?size=20&page=" + aleatorio.nextInt(10));
+        }
+    },
+    AUDITORIAS_USUARIO(12, "GET", "/api/v1/auditorias/usuario/{usuarioId}/cursor") {
+        @Override
+        HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia) {
+            return get(base + "/api/v1/auditorias/usuario/" + alAzar(datos.getUsuarioIds(), aleatorio) + "/cursor?size=20");
+        }
+    },
+    ESTADISTICAS_AUDITORIA(4, "GET", "/api/v1/auditorias/estadisticas") {
+        @Override
+        HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia) {
+            return get(base + "/api/v1/auditorias/estadisticas?granularidad=dia"
+                    + "&fechaInicio=" + datos.getAuditoriasDesde()
+                    + "&fechaFin=" + datos.getAuditoriasHasta());
+        }
+    },
+    AUTENTICAR(15, "POST", "/api/v1/usuarios/autenticar") {
+        @Override
+        HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia) {
+            String cuerpo = String.format("{\"nombreUsuario\":\"%s\",\"password\":\"%s\"}",
+                    alAzar(datos.getNombresUsuario(), aleatorio), datos.getPassword());
+            return json(base + "/api/v1/usuarios/autenticar").POST(HttpRequest.BodyPublishers.ofString(cuerpo));
+        }
+    },
+    CREAR_USUARIO(5, "POST", "/api/v1/usuarios") {
+        @Override
+        HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia) {
+            String cuerpo = String.format("{\"personaId\":\"%s\",\"nombreUsuario\":\"carga.nuevo.%d\",\"password\":\"%s\",\"rolId\":\"%s\"}",
+                    UUID.randomUUID(), secuencia, datos.getPassword(), alAzar(datos.getRolIds(), aleatorio));
+            return json(base + "/api/v1/usuarios").POST(HttpRequest.BodyPublishers.ofString(cuerpo));
+        }
+    },
+    ACTUALIZAR_USUARIO(10, "PUT", "/api/v1/usuarios/{usuarioId}") {
+        @Override
+        HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia) {
+            // Cambia solo el rol; nombre y persona se mantienen para no chocar con otros usuarios
+            int indice = aleatorio.nextInt(datos.cantidadUsuarios());
+            String cuerpo = String.format("{\"personaId\":\"%s\",\"nombreUsuario\":\"%s\",\"rolId\":\"%s\"}",
+                    datos.getPersonaIds().get(indice), datos.getNombresUsuario().get(indice),
+                    alAzar(datos.getRolIds(), aleatorio));
+            return json(base + "/api/v1/usuarios/" + datos.getUsuarioIds().get(indice))
+                    .PUT(HttpRequest.BodyPublishers.ofString(cuerpo));
+        }
+    };
+
+    private static final Duration TIEMPO_MAXIMO = Duration.ofSeconds(30);
+    private static final int PESO_TOTAL = Arrays.stream(values()).mapToInt(EscenarioCarga::getPeso).sum();
+
+    private final int peso;
+    private final String metodo;
+    private final String patronUri;
+
+    abstract HttpRequest.Builder solicitud(String base, DatosSembrados datos, ThreadLocalRandom aleatorio, long secuencia);
+
+    boolean isCondicional() {
+        return false;
+    }
+
+    /**
+     * Elige un escenario al azar respetando los pesos
+     */
+    static EscenarioCarga elegir(ThreadLocalRandom aleatorio) {
+        int valor = aleatorio.nextInt(PESO_TOTAL);
+        for (EscenarioCarga escenario : values()) {
+            valor -= escenario.peso;
+            if (valor < 0) {
+                return escenario;
+            }
+        }
+        throw new IllegalStateException("Pesos de escenarios inconsistentes");
+    }
+
+    private static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(TIEMPO_MAXIMO).GET();
+    }
+
+    private static HttpRequest.Builder json(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(TIEMPO_MAXIMO)
+                .header("Content-Type", "application/json");
+    }
+
+    private static <T> T alAzar(List<T> valores, ThreadLocalRandom aleatorio) {
+        return valores.get(aleatorio.nextInt(valores.size()));
+    }
+
+    private static int paginas(int elementos, int tamano) {
+        return Math.max(1, (elementos + tamano - 1) / tamano);
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,308 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.carga;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.FlujosTrabajoDocumentacionApplication;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.usuarios.ConciliacionConteoUsuariosRol;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.util.PasswordUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga de punta a punta: levanta un PostgreSQL embebido (binarios reales, sin Docker)
+ * y la aplicación completa sobre él, siembra datos y ejecuta una mezcla de escenarios
+ * ({@link EscenarioCarga}) con una cantidad fija de clientes concurrentes, cada uno enviando
+ * la siguiente solicitud apenas recibe la respuesta anterior.
+ * <p>
+ * El reporte JSON tiene, por escenario, rendimiento, percentiles de latencia, estados HTTP y
+ * sentencias SQL de Hibernate por solicitud (métrica ssoma.http.sentencias.sql). Sus claves
+ * están ordenadas para poder compararlo entre commits.
+ */
+@Slf4j
+public class PruebaCarga {
+
+    private static final String METRICA_SENTENCIAS = "ssoma.http.sentencias.sql";
+
+    public static void main(String[] args) throws Exception {
+        // devtools está en el classpath de prueba; su reinicio volvería a ejecutar main en otro class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfiguracionCarga configuracion = ConfiguracionCarga.desdePropiedadesDelSistema();
+        // Con Java 17 Spring Boot ignora spring.threads.virtual.enabled y se mediría dos veces el mismo modo
+        if (configuracion.isHilosVirtuales() && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("carga.hilos-virtuales=true requiere ejecutar con Java 21+; versión actual: "
+                    + Runtime.version());
+        }
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext contexto = iniciarAplicacion(postgres, configuracion)) {
+
+            DatosSembrados datos = new SembradorDatos(contexto.getBean(JdbcTemplate.class),
+                    contexto.getBean(PasswordUtil.class)).sembrar(configuracion);
+
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+            HttpClient cliente = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            MeterRegistry registry = contexto.getBean(MeterRegistry.class);
+            // Última ETag por URI de los escenarios condicionales; se conserva del calentamiento a la medición
+            Map<URI, String> etiquetas = new ConcurrentHashMap<>();
+
+            if (!configuracion.getCalentamiento().isZero()) {
+                log.info("Calentamiento durante {} s", configuracion.getCalentamiento().toSeconds());
+                ejecutar(cliente, base, datos, etiquetas, configuracion.getConcurrencia(), configuracion.getCalentamiento());
+            }
+
+            Map<EscenarioCarga, double[]> sentenciasAntes = leerSentencias(registry);
+            log.info("Medición durante {} s con {} clientes", configuracion.getDuracion().toSeconds(),
+                    configuracion.getConcurrencia());
+            long inicio = System.nanoTime();
+            Map<EscenarioCarga, ResultadoEscenario> resultados =
+                    ejecutar(cliente, base, datos, etiquetas, configuracion.getConcurrencia(), configuracion.getDuracion());
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            Map<EscenarioCarga, double[]> sentenciasDespues = leerSentencias(registry);
+
+            Map<String, Object> reporte = armarReporte(configuracion, contexto, postgres, resultados, segundos,
+                    sentenciasAntes, sentenciasDespues);
+            Files.createDirectories(configuracion.getReporte().toAbsolutePath().getParent());
+            new ObjectMapper()
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                    .writeValue(configuracion.getReporte().toFile(), reporte);
+
+            mostrarResumen(resultados, segundos);
+            log.info("Reporte escrito en {}", configuracion.getReporte().toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciarAplicacion(EmbeddedPostgres postgres,
+                                                                    ConfiguracionCarga configuracion) {
+        Map<String, Object> propiedades = new LinkedHashMap<>();
+        propiedades.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        propiedades.put("spring.datasource.username", "postgres");
+        propiedades.put("spring.datasource.password", "");
+        propiedades.put("spring.threads.virtual.enabled", configuracion.isHilosVirtuales());
+        propiedades.put("spring.jpa.show-sql", false);
+        propiedades.put("server.port", 0);
+        // Los escenarios no envían tokens: sin la cadena JWT tampoco hace falta un secreto, aunque el entorno active JWT
+        propiedades.put("ssoma.seguridad.jwt.habilitado", false);
+        propiedades.put("ssoma.seguridad.jwt.requerido", false);
+        // El log por solicitud en consola distorsiona la medición; se deja solo el de la prueba
+        propiedades.put("logging.level.com.dataservices.ssoma.flujos_trabajo_documentacion", "WARN");
+        propiedades.put("logging.level.com.dataservices.ssoma.flujos_trabajo_documentacion.carga", "INFO");
+        propiedades.put("logging.level.org.springdoc", "WARN");
+
+        // Como argumentos de línea de comandos, para que tengan prioridad sobre application.yml
+        String[] argumentos = propiedades.entrySet().stream()
+                .map(propiedad -> "--" + propiedad.getKey() + "=" + propiedad.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(FlujosTrabajoDocumentacionApplication.class).run(argumentos);
+    }
+
+    private static Map<EscenarioCarga, ResultadoEscenario> ejecutar(HttpClient cliente, String base, DatosSembrados datos,
+                                                                   Map<URI, String> etiquetas, int concurrencia,
+                                                                   Duration duracion)
+            throws InterruptedException {
+        Map<EscenarioCarga, ResultadoEscenario> resultados = new EnumMap<>(EscenarioCarga.class);
+        for (EscenarioCarga escenario : EscenarioCarga.values()) {
+            resultados.put(escenario, new ResultadoEscenario());
+        }
+
+        AtomicLong secuencia = new AtomicLong(System.currentTimeMillis());
+        long fin = System.nanoTime() + duracion.toNanos();
+        ExecutorService clientes = Executors.newFixedThreadPool(concurrencia);
+        for (int i = 0; i < concurrencia; i++) {
+            clientes.execute(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                while (System.nanoTime() < fin) {
+                    EscenarioCarga escenario = EscenarioCarga.elegir(aleatorio);
+                    var constructor = escenario.solicitud(base, datos, aleatorio, secuencia.incrementAndGet());
+                    var solicitud = constructor.build();
+                    String etiqueta = escenario.isCondicional() ? etiquetas.get(solicitud.uri()) : null;
+                    if (etiqueta != null) {
+                        solicitud = constructor.header("If-None-Match", etiqueta).build();
+                    }
+
+                    long inicio = System.nanoTime();
+                    int estado;
+                    try {
+                        HttpResponse<Void> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.discarding());
+                        estado = respuesta.statusCode();
+                        if (escenario.isCondicional()) {
+                            URI uri = solicitud.uri();
+                            respuesta.headers().firstValue("ETag").ifPresent(valor -> etiquetas.put(uri, valor));
+                        }
+                    } catch (IOException e) {
+                        estado = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    resultados.get(escenario).registrar(System.nanoTime() - inicio, estado);
+                }
+            });
+        }
+
+        clientes.shutdown();
+        if (!clientes.awaitTermination(duracion.toSeconds() + 60, TimeUnit.SECONDS)) {
+            clientes.shutdownNow();
+        }
+        return resultados;
+    }
+
+    /**
+     * Cantidad de solicitudes y total de sentencias acumulados por escenario hasta ahora
+     */
+    private static Map<EscenarioCarga, double[]> leerSentencias(MeterRegistry registry) {
+        Map<EscenarioCarga, double[]> lectura = new EnumMap<>(EscenarioCarga.class);
+        for (EscenarioCarga escenario : EscenarioCarga.values()) {
+            DistributionSummary resumen = registry.find(METRICA_SENTENCIAS)
+                    .tag("uri", escenario.getPatronUri())
+                    .tag("method", escenario.getMetodo())
+                    .summary();
+            lectura.put(escenario, resumen != null
+                    ? new double[]{resumen.count(), resumen.totalAmount()}
+                    : new double[]{0, 0});
+        }
+        return lectura;
+    }
+
+    private static Map<String, Object> armarReporte(ConfiguracionCarga configuracion,
+                                                    ConfigurableApplicationContext contexto,
+                                                    EmbeddedPostgres postgres,
+                                                    Map<EscenarioCarga, ResultadoEscenario> resultados,
+                                                    double segundos,
+                                                    Map<EscenarioCarga, double[]> sentenciasAntes,
+                                                    Map<EscenarioCarga, double[]> sentenciasDespues) {
+        Environment entorno = contexto.getEnvironment();
+
+        Map<String, Object> ejecucion = new LinkedHashMap<>();
+        ejecucion.put("fecha", OffsetDateTime.now().toString());
+        ejecucion.put("commit", leerCommit());
+        ejecucion.put("java", System.getProperty("java.version"));
+        ejecucion.put("procesadores", Runtime.getRuntime().availableProcessors());
+        ejecucion.put("postgresql", new JdbcTemplate(postgres.getPostgresDatabase())
+                .queryForObject("SHOW server_version", String.class));
+        ejecucion.put("hilosVirtualesActivos", Threading.VIRTUAL.isActive(entorno));
+        ejecucion.put("poolConexiones", entorno.getProperty("spring.datasource.hikari.maximum-pool-size", "10"));
+
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        parametros.put("usuarios", configuracion.getUsuarios());
+        parametros.put("roles", configuracion.getRoles());
+        parametros.put("auditorias", configuracion.getAuditorias());
+        parametros.put("concurrencia", configuracion.getConcurrencia());
+        parametros.put("calentamientoSegundos", configuracion.getCalentamiento().toSeconds());
+        parametros.put("duracionSegundos", configuracion.getDuracion().toSeconds());
+        parametros.put("hilosVirtuales", configuracion.isHilosVirtuales());
+
+        Map<String, Object> escenarios = new LinkedHashMap<>();
+        long solicitudes = 0;
+        long errores = 0;
+        for (EscenarioCarga escenario : EscenarioCarga.values()) {
+            ResultadoEscenario resultado = resultados.get(escenario);
+            solicitudes += resultado.getSolicitudes();
+            errores += resultado.getErrores();
+
+            Map<String, Object> detalle = new LinkedHashMap<>();
+            detalle.put("metodo", escenario.getMetodo());
+            detalle.put("uri", escenario.getPatronUri());
+            detalle.put("peso", escenario.getPeso());
+            detalle.put("solicitudes", resultado.getSolicitudes());
+            detalle.put("errores", resultado.getErrores());
+            detalle.put("estados", resultado.getEstados());
+            detalle.put("solicitudesPorSegundo", redondear(resultado.getSolicitudes() / segundos));
+            detalle.put("latenciaMs", latencias(resultado));
+            detalle.put("sentenciasSqlPorSolicitud",
+                    sentenciasPorSolicitud(sentenciasAntes.get(escenario), sentenciasDespues.get(escenario)));
+            escenarios.put(escenario.name(), detalle);
+        }
+
+        Map<String, Object> total = new LinkedHashMap<>();
+        total.put("solicitudes", solicitudes);
+        total.put("errores", errores);
+        total.put("segundos", redondear(segundos));
+        total.put("solicitudesPorSegundo", redondear(solicitudes / segundos));
+        // Roles cuyo contador no coincidía con USUARIOS al terminar; distinto de 0 indica un ajuste perdido
+        total.put("conteoUsuariosRolCorregidos", contexto.getBean(ConciliacionConteoUsuariosRol.class).conciliar());
+
+        Map<String, Object> reporte = new LinkedHashMap<>();
+        reporte.put("ejecucion", ejecucion);
+        reporte.put("parametros", parametros);
+        reporte.put("total", total);
+        reporte.put("escenarios", escenarios);
+        return reporte;
+    }
+
+    private static Map<String, Object> latencias(ResultadoEscenario resultado) {
+        Map<String, Object> latencias = new LinkedHashMap<>();
+        if (resultado.getSolicitudes() == 0) {
+            return latencias;
+        }
+        latencias.put("p50", redondear(resultado.percentilMs(50)));
+        latencias.put("p95", redondear(resultado.percentilMs(95)));
+        latencias.put("p99", redondear(resultado.percentilMs(99)));
+        latencias.put("maximo", redondear(resultado.maximoMs()));
+        latencias.put("promedio", redondear(resultado.promedioMs()));
+        return latencias;
+    }
+
+    private static Double sentenciasPorSolicitud(double[] antes, double[] despues) {
+        double solicitudes = despues[0] - antes[0];
+        return solicitudes > 0 ? redondear((despues[1] - antes[1]) / solicitudes) : null;
+    }
+
+    private static void mostrarResumen(Map<EscenarioCarga, ResultadoEscenario> resultados, double segundos) {
+        log.info(String.format("%-24s %10s %8s %10s %10s %10s %10s", "Escenario", "Solicitudes", "Errores",
+                "Sol/s", "p50 ms", "p95 ms", "p99 ms"));
+        resultados.forEach((escenario, resultado) -> log.info(String.format("%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f",
+                escenario, resultado.getSolicitudes(), resultado.getErrores(), resultado.getSolicitudes() / segundos,
+                resultado.percentilMs(50), resultado.percentilMs(95), resultado.percentilMs(99))));
+    }
+
+    private static String leerCommit() {
+        try {
+            Process proceso = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+            try (InputStream salida = proceso.getInputStream()) {
+                String commit = new String(salida.readAllBytes(), StandardCharsets.UTF_8).trim();
+                return proceso.waitFor() == 0 ? commit : null;
+            }
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+}
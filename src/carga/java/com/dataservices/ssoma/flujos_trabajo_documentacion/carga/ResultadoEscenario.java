@@ -0,0 +1,58 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias (en microsegundos, con tres dígitos significativos) y estados HTTP de un escenario
+ */
+class ResultadoEscenario {
+
+    private final Histogram latencias = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final Map<Integer, LongAdder> estados = new ConcurrentHashMap<>();
+    private final LongAdder errores = new LongAdder();
+
+    /**
+     * Registra una solicitud; estado -1 indica que no hubo respuesta (timeout o conexión rechazada).
+     * 304 no es error: es la respuesta esperada de una consulta condicional sin cambios
+     */
+    void registrar(long nanos, int estado) {
+        latencias.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), latencias.getHighestTrackableValue()));
+        estados.computeIfAbsent(estado, clave -> new LongAdder()).increment();
+        if (estado < 200 || (estado >= 300 && estado != 304)) {
+            errores.increment();
+        }
+    }
+
+    long getSolicitudes() {
+        return latencias.getTotalCount();
+    }
+
+    long getErrores() {
+        return errores.sum();
+    }
+
+    Map<String, Long> getEstados() {
+        Map<String, Long> resultado = new TreeMap<>();
+        estados.forEach((estado, cantidad) -> resultado.put(String.valueOf(estado), cantidad.sum()));
+        return resultado;
+    }
+
+    double percentilMs(double percentil) {
+        return latencias.getValueAtPercentile(percentil) / 1000.0;
+    }
+
+    double maximoMs() {
+        return latencias.getMaxValue() / 1000.0;
+    }
+
+    double promedioMs() {
+        return latencias.getMean() / 1000.0;
+    }
+}
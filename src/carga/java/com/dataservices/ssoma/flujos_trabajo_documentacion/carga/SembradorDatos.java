@@ -0,0 +1,107 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.carga;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.util.PasswordUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Siembra roles, usuarios y auditorías directamente con SQL, sin pasar por los servicios,
+ * para que la preparación no cuente como carga. Todos los usuarios comparten la misma contraseña,
+ * así el hash BCrypt se calcula una sola vez.
+ */
+@RequiredArgsConstructor
+@Slf4j
+class SembradorDatos {
+
+    static final String PASSWORD = "Carga#2024";
+
+    // Las auditorías se reparten en los últimos 30 días, una por minuto y usuario
+    private static final int MINUTOS_HISTORIA = 30 * 24 * 60;
+
+    private static final String INSERTAR_AUDITORIAS = """
+            WITH sembrados AS (
+                SELECT array_agg(usuario_id ORDER BY nombre_usuario) AS ids
+                FROM usuarios
+                WHERE nombre_usuario LIKE 'carga.usuario.%'
+            ), insertadas AS (
+                INSERT INTO auditoria (auditoria_id, usuario_id, accion, fecha_hora, detalles_json)
+                SELECT gen_random_uuid(),
+                       s.ids[1 + g % cardinality(s.ids)],
+                       (ARRAY['LOGIN_EXITOSO', 'LOGIN_EXITOSO', 'LOGIN_EXITOSO', 'USUARIO_ACTUALIZADO',
+                              'USUARIO_CREADO', 'PASSWORD_CAMBIADA'])[1 + g % 6],
+                       CAST(? AS timestamp) - (g % ?) * interval '1 minute',
+                       jsonb_build_object('ip', '10.0.' || (g % 250) || '.' || (g % 7), 'origen', 'carga', 'secuencia', g)
+                FROM generate_series(1, ?) AS g, sembrados s
+                RETURNING usuario_id, accion, fecha_hora
+            )
+            INSERT INTO auditoria_resumen_horario (hora, accion, usuario_id, cantidad)
+            SELECT date_trunc('hour', fecha_hora), accion, usuario_id, count(*)
+            FROM insertadas
+            GROUP BY 1, 2, 3
+            ON CONFLICT (hora, accion, usuario_id)
+                DO UPDATE SET cantidad = auditoria_resumen_horario.cantidad + EXCLUDED.cantidad
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordUtil passwordUtil;
+
+    DatosSembrados sembrar(ConfiguracionCarga configuracion) {
+        long inicio = System.nanoTime();
+
+        List<UUID> rolIds = sembrarRoles(configuracion.getRoles());
+
+        List<UUID> usuarioIds = new ArrayList<>(configuracion.getUsuarios());
+        List<UUID> personaIds = new ArrayList<>(configuracion.getUsuarios());
+        List<String> nombres = new ArrayList<>(configuracion.getUsuarios());
+        String hash = passwordUtil.hashPassword(PASSWORD);
+
+        List<Object[]> filas = new ArrayList<>(configuracion.getUsuarios());
+        for (int i = 0; i < configuracion.getUsuarios(); i++) {
+            UUID usuarioId = UUID.randomUUID();
+            UUID personaId = UUID.randomUUID();
+            String nombre = String.format("carga.usuario.%06d", i);
+            usuarioIds.add(usuarioId);
+            personaIds.add(personaId);
+            nombres.add(nombre);
+            filas.add(new Object[]{usuarioId, personaId, nombre, hash, rolIds.get(i % rolIds.size())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO usuarios (usuario_id, persona_id, nombre_usuario, password_hash, rol_id) "
+                + "VALUES (?, ?, ?, ?, ?)", filas);
+        // La aplicación mantiene esta cantidad en sus propias escrituras; la siembra no pasa por ella
+        jdbcTemplate.update("INSERT INTO roles_cantidad_usuarios (rol_id, cantidad) "
+                + "SELECT rol_id, count(*) FROM usuarios GROUP BY rol_id "
+                + "ON CONFLICT (rol_id) DO UPDATE SET cantidad = EXCLUDED.cantidad");
+
+        LocalDateTime hasta = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        if (configuracion.getAuditorias() > 0) {
+            jdbcTemplate.update(INSERTAR_AUDITORIAS, hasta, MINUTOS_HISTORIA, configuracion.getAuditorias());
+        }
+
+        jdbcTemplate.execute("ANALYZE");
+
+        log.info("Datos sembrados en {} ms - Roles: {}, Usuarios: {}, Auditorías: {}",
+                (System.nanoTime() - inicio) / 1_000_000, rolIds.size(), usuarioIds.size(), configuracion.getAuditorias());
+
+        return new DatosSembrados(List.copyOf(rolIds), List.copyOf(usuarioIds), List.copyOf(personaIds),
+                List.copyOf(nombres), PASSWORD, hasta.minusMinutes(MINUTOS_HISTORIA), hasta);
+    }
+
+    private List<UUID> sembrarRoles(int cantidad) {
+        List<UUID> rolIds = new ArrayList<>(cantidad);
+        List<Object[]> filas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            UUID rolId = UUID.randomUUID();
+            rolIds.add(rolId);
+            filas.add(new Object[]{rolId, String.format("CARGA_ROL_%03d", i), "Rol sembrado para la prueba de carga"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO roles (rol_id, nombre_rol, descripcion) VALUES (?, ?, ?)", filas);
+        return rolIds;
+    }
+}
@@ -0,0 +1,88 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.config.JacksonConfig;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.UsuarioDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Armado y serialización de las respuestas de los controladores: PageResponse.from y
+ * ApiResponse escrita con el ObjectMapper de {@link JacksonConfig}, como lo hace Spring MVC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RespuestaApiBenchmark {
+
+    @Param({"20", "100"})
+    private int tamanoPagina;
+
+    private ObjectMapper objectMapper;
+    private Page<UsuarioDTO> pagina;
+    private ApiResponse<UsuarioDTO> respuestaUsuario;
+    private ApiResponse<PageResponse<UsuarioDTO>> respuestaPagina;
+
+    @Setup
+    public void preparar() {
+        objectMapper = new JacksonConfig().objectMapper();
+
+        List<UsuarioDTO> usuarios = new ArrayList<>(tamanoPagina);
+        for (int i = 0; i < tamanoPagina; i++) {
+            usuarios.add(UsuarioDTO.builder()
+                    .usuarioId(UUID.randomUUID())
+                    .personaId(UUID.randomUUID())
+                    .nombreUsuario("operador.planta" + i)
+                    .rolId(UUID.randomUUID())
+                    .nombreRol("SUPERVISOR")
+                    .nombrePersona("Operador de planta " + i)
+                    .dniPersona(String.format("%08d", 40000000 + i))
+                    .build());
+        }
+        pagina = new PageImpl<>(usuarios, PageRequest.of(0, tamanoPagina), 5_000);
+        respuestaUsuario = ApiResponse.success(usuarios.get(0));
+        respuestaPagina = ApiResponse.success(PageResponse.from(pagina));
+    }
+
+    @Benchmark
+    public PageResponse<UsuarioDTO> construirPagina() {
+        return PageResponse.from(pagina);
+    }
+
+    @Benchmark
+    public byte[] serializarUsuario() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(respuestaUsuario);
+    }
+
+    @Benchmark
+    public byte[] serializarPagina() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(respuestaPagina);
+    }
+
+    @Benchmark
+    public byte[] construirYSerializarPagina() throws JsonProcessingException {
+        // Recorrido completo de un GET paginado desde que el servicio devuelve la página
+        return objectMapper.writeValueAsBytes(ApiResponse.success(PageResponse.from(pagina)));
+    }
+}
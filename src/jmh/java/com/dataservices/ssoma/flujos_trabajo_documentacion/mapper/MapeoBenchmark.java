@@ -0,0 +1,116 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.mapper;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.AuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.UsuarioDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Auditoria;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversiones de MapStruct que se hacen en cada respuesta de usuarios y auditoría.
+ * El tamaño de lista corresponde a una página típica y a la máxima.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeoBenchmark {
+
+    @Param({"20", "100"})
+    private int tamanoPagina;
+
+    private UsuarioMapper usuarioMapper;
+    private AuditoriaMapper auditoriaMapper;
+
+    private Usuario usuario;
+    private UsuarioDTO usuarioDTO;
+    private Auditoria auditoria;
+    private List<Usuario> usuarios;
+    private List<Auditoria> auditorias;
+
+    @Setup
+    public void preparar() {
+        usuarioMapper = new UsuarioMapperImpl();
+        auditoriaMapper = new AuditoriaMapperImpl();
+
+        usuarios = new ArrayList<>(tamanoPagina);
+        auditorias = new ArrayList<>(tamanoPagina);
+        for (int i = 0; i < tamanoPagina; i++) {
+            usuarios.add(usuario(i));
+            auditorias.add(auditoria(i));
+        }
+        usuario = usuarios.get(0);
+        auditoria = auditorias.get(0);
+        usuarioDTO = usuarioMapper.toDTO(usuario);
+    }
+
+    @Benchmark
+    public UsuarioDTO usuarioADto() {
+        return usuarioMapper.toDTO(usuario);
+    }
+
+    @Benchmark
+    public Usuario dtoAUsuario() {
+        return usuarioMapper.toEntity(usuarioDTO);
+    }
+
+    @Benchmark
+    public Usuario actualizarUsuarioDesdeDto() {
+        Usuario destino = Usuario.builder().usuarioId(usuario.getUsuarioId()).build();
+        usuarioMapper.updateEntityFromDTO(usuarioDTO, destino);
+        return destino;
+    }
+
+    @Benchmark
+    public List<UsuarioDTO> paginaUsuarios() {
+        return usuarioMapper.toDTOList(usuarios);
+    }
+
+    @Benchmark
+    public AuditoriaDTO auditoriaADto() {
+        return auditoriaMapper.toDTO(auditoria);
+    }
+
+    @Benchmark
+    public List<AuditoriaDTO> paginaAuditorias() {
+        return auditoriaMapper.toDTOList(auditorias);
+    }
+
+    private static Usuario usuario(int i) {
+        return Usuario.builder()
+                .usuarioId(UUID.randomUUID())
+                .personaId(UUID.randomUUID())
+                .nombreUsuario("operador.planta" + i)
+                .passwordHash("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6Xy4Kp6PAVdYx7Q9Gm4Hn3u")
+                .rolId(UUID.randomUUID())
+                .build();
+    }
+
+    private static Auditoria auditoria(int i) {
+        return Auditoria.builder()
+                .auditoriaId(UUID.randomUUID())
+                .usuarioId(UUID.randomUUID())
+                .accion("USUARIO_ACTUALIZADO")
+                .fechaHora(LocalDateTime.of(2024, 3, 1, 8, 0).plusMinutes(i))
+                .detallesJson("{\"usuario\":\"operador.planta" + i + "\",\"campo\":\"rolId\",\"ip\":\"10.0.12.7\"}")
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalización de detalles de auditoría: implementación anterior (readTree dos veces + HashMap)
+ * contra {@link NormalizadorJson}. Ejecutar con -prof gc para ver bytes/op (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NormalizadorJsonBenchmark {
+
+    @Param({"TEXTO", "JSON_PEQUENO", "JSON_GRANDE"})
+    private String carga;
+
+    private ObjectMapper objectMapper;
+    private NormalizadorJson normalizadorJson;
+    private String detalles;
+
+    @Setup
+    public void preparar() {
+        objectMapper = new ObjectMapper();
+        normalizadorJson = new NormalizadorJson(objectMapper);
+        detalles = switch (carga) {
+            case "TEXTO" -> "Usuario creado: operador.planta.norte";
+            case "JSON_PEQUENO" -> "{\"usuario\":\"operador.planta.norte\",\"campo\":\"rolId\",\"ip\":\"10.0.12.7\"}";
+            default -> jsonGrande();
+        };
+    }
+
+    @Benchmark
+    public String legado() throws JsonProcessingException {
+        // AuditoriaServiceImpl antes del cambio: convertirAJson y luego prepararJsonValido
+        return prepararJsonValidoLegado(convertirAJsonLegado(detalles));
+    }
+
+    @Benchmark
+    public String normalizador() throws JsonProcessingException {
+        return normalizadorJson.normalizar((Object) detalles);
+    }
+
+    private String convertirAJsonLegado(Object objeto) throws JsonProcessingException {
+        if (objeto instanceof String str) {
+            if (esJsonValidoLegado(str)) {
+                return str;
+            }
+            Map<String, String> wrapper = new HashMap<>();
+            wrapper.put("mensaje", str);
+            return objectMapper.writeValueAsString(wrapper);
+        }
+        return objectMapper.writeValueAsString(objeto);
+    }
+
+    private String prepararJsonValidoLegado(String input) throws JsonProcessingException {
+        if (esJsonValidoLegado(input)) {
+            return input;
+        }
+        Map<String, String> wrapper = new HashMap<>();
+        wrapper.put("mensaje", input);
+        return objectMapper.writeValueAsString(wrapper);
+    }
+
+    private boolean esJsonValidoLegado(String json) {
+        if (json == null || json.trim().isEmpty()) {
+            return false;
+        }
+        try {
+            objectMapper.readTree(json);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String jsonGrande() {
+        // ~64 KB: un cambio masivo con valores anteriores y nuevos
+        StringBuilder json = new StringBuilder("{\"operacion\":\"IMPORTACION\",\"cambios\":[");
+        for (int i = 0; i < 500; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"usuarioId\":\"6f1c2a9e-0000-4000-8000-").append(String.format("%012d", i))
+                    .append("\",\"campo\":\"nombreUsuario\",\"anterior\":\"usuario").append(i)
+                    .append("\",\"nuevo\":\"usuario.renombrado").append(i)
+                    .append("\",\"activo\":true,\"intentos\":").append(i % 7).append('}');
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.util;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.config.HashingPasswordProperties;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.PasswordEncoderAcotado;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash y verificación de contraseñas con distintos costos de BCrypt, a través de PasswordUtil
+ * (pool acotado de PasswordEncoderAcotado) y directamente con BCrypt para ver el costo del pool.
+ * Cada punto de costo duplica el tiempo; sirve para elegir ssoma.seguridad.password.costo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordUtilBenchmark {
+
+    private static final String PASSWORD = "Planta#Norte2024";
+
+    @Param({"4", "10", "12"})
+    private int costo;
+
+    private PasswordEncoderAcotado passwordEncoder;
+    private PasswordUtil passwordUtil;
+    private BCryptPasswordEncoder bcrypt;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        HashingPasswordProperties properties = new HashingPasswordProperties();
+        properties.setCosto(costo);
+        // Con costo 12 una operación ronda los 250 ms; no debe expirar durante la medición
+        properties.setTiempoMaximoEspera(Duration.ofSeconds(30));
+
+        passwordEncoder = new PasswordEncoderAcotado(properties);
+        passwordUtil = new PasswordUtil(passwordEncoder);
+        bcrypt = new BCryptPasswordEncoder(costo);
+        hash = passwordUtil.hashPassword(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        passwordEncoder.destroy();
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return passwordUtil.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verifyPassword() {
+        return passwordUtil.verifyPassword(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public String hashDirecto() {
+        return bcrypt.encode(PASSWORD);
+    }
+}
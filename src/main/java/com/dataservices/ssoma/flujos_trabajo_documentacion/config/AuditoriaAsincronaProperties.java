@@ -0,0 +1,55 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ssoma.auditoria.asincrona")
+public class AuditoriaAsincronaProperties {
+
+    /**
+     * Activa el modo write-behind: los eventos se encolan y se escriben en lotes desde un hilo de fondo
+     */
+    private boolean habilitada = false;
+
+    /**
+     * Cantidad máxima de eventos pendientes en memoria
+     */
+    private int capacidadCola = 10_000;
+
+    /**
+     * Cantidad máxima de eventos por INSERT multi-fila
+     */
+    private int tamanoLote = 500;
+
+    /**
+     * Tiempo máximo que un evento espera en la cola antes de forzar la escritura de un lote incompleto
+     */
+    private Duration esperaMaximaLote = Duration.ofMillis(200);
+
+    /**
+     * Qué hacer cuando la cola está llena
+     */
+    private PoliticaDesborde politicaDesborde = PoliticaDesborde.SINCRONO;
+
+    /**
+     * Tiempo que se bloquea al llamador con la política BLOQUEAR antes de descartar el evento
+     */
+    private Duration tiempoBloqueoMaximo = Duration.ofMillis(50);
+
+    /**
+     * Tiempo máximo para vaciar la cola durante el apagado de la aplicación
+     */
+    private Duration tiempoDrenado = Duration.ofSeconds(30);
+
+    public enum PoliticaDesborde {
+        /** Escribe el evento en el hilo del llamador (sin pérdida, con la latencia del modo síncrono) */
+        SINCRONO,
+        /** Espera hasta tiempoBloqueoMaximo por espacio en la cola y descarta si no lo hay */
+        BLOQUEAR,
+        /** Descarta el evento inmediatamente */
+        DESCARTAR
+    }
+}
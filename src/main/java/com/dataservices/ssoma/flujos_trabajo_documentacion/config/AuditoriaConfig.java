@@ -0,0 +1,13 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({
+        AuditoriaAsincronaProperties.class,
+        RetencionAuditoriaProperties.class,
+        ParticionesAuditoriaProperties.class
+})
+public class AuditoriaConfig {
+}
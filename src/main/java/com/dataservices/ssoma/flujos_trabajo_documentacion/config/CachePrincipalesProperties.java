@@ -0,0 +1,26 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ssoma.seguridad.cache-principales")
+public class CachePrincipalesProperties {
+
+    /**
+     * Guarda en memoria los UserPrincipal cargados por nombre de usuario
+     */
+    private boolean habilitada = true;
+
+    /**
+     * Vigencia de cada entrada; acota cuánto tarda en verse un cambio hecho desde otra instancia
+     */
+    private Duration ttl = Duration.ofSeconds(60);
+
+    /**
+     * Cantidad máxima de principales en memoria
+     */
+    private long maximoEntradas = 10_000;
+}
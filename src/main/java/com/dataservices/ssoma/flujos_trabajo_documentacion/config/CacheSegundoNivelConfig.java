@@ -0,0 +1,87 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.RegionesCache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Caché de segundo nivel de Hibernate: Usuario y Rol por ID, Usuario por nombre de usuario (natural-id)
+ * y la lista de roles (caché de consultas). Cada instancia tiene su propia caché en memoria; los cambios
+ * hechos desde otra instancia se ven al vencer la vigencia de la región.
+ * <p>
+ * Por eso las lecturas que deciden acceso o validez no pasan por ella y consultan siempre la base:
+ * las credenciales al iniciar sesión (UsuarioRepository.findCredencialesByNombreUsuario), la revalidación
+ * de ETag y el cuerpo que la acompaña (findVersionByUsuarioId, buscarPorIdDesdeBase,
+ * RolRepository.listarTodosDesdeBase) y la verificación previa a eliminar un rol (existsByRolId).
+ * Las escrituras sobre entidades leídas de aquí las protege la columna version (bloqueo optimista).
+ */
+@Configuration
+@EnableConfigurationProperties(CacheSegundoNivelProperties.class)
+@Slf4j
+public class CacheSegundoNivelConfig {
+
+    private static final List<String> REGIONES = List.of(
+            RegionesCache.USUARIOS,
+            RegionesCache.USUARIOS_POR_NOMBRE,
+            RegionesCache.ROLES,
+            RegionesCache.CONSULTA_ROLES,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate(CacheSegundoNivelProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("ssoma-hibernate"), getClass().getClassLoader());
+
+        for (String region : REGIONES) {
+            CacheSegundoNivelProperties.Region configuracion = properties.region(region);
+            cacheManager.createCache(region, configuracion(configuracion.getMaximoEntradas(), configuracion.getTtl().toNanos()));
+            log.info("Región de caché de segundo nivel {} - Máximo: {}, Vigencia: {}",
+                    region, configuracion.getMaximoEntradas(), configuracion.getTtl());
+        }
+
+        // Las marcas de tiempo por tabla invalidan la caché de consultas: no deben expirar ni desalojarse
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStoreByValue(false));
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel(CacheSegundoNivelProperties properties,
+                                                           CacheManager cacheManagerHibernate) {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, properties.isHabilitada());
+            propiedades.put(AvailableSettings.USE_QUERY_CACHE, properties.isHabilitada());
+            if (properties.isHabilitada()) {
+                propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+                propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+                // Una región sin configurar sería ilimitada: mejor fallar al iniciar
+                propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuracion(long maximoEntradas, long ttlNanos) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        // Hibernate guarda entradas inmutables: se evita copiarlas por serialización en cada lectura
+        configuracion.setStoreByValue(false);
+        configuracion.setMaximumSize(OptionalLong.of(maximoEntradas));
+        configuracion.setExpireAfterWrite(OptionalLong.of(ttlNanos));
+        return configuracion;
+    }
+}
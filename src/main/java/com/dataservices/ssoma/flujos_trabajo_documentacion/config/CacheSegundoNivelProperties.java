@@ -0,0 +1,50 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "ssoma.cache-segundo-nivel")
+public class CacheSegundoNivelProperties {
+
+    /**
+     * Caché de segundo nivel y de consultas de Hibernate para Usuario y Rol
+     */
+    private boolean habilitada = true;
+
+    /**
+     * Tamaño y vigencia de las regiones que no aparecen en regiones
+     */
+    private Region porDefecto = new Region(10_000, Duration.ofMinutes(5));
+
+    /**
+     * Tamaño y vigencia por región (usuarios, usuarios-por-nombre, roles, consulta-roles)
+     */
+    private Map<String, Region> regiones = new LinkedHashMap<>();
+
+    public Region region(String nombre) {
+        return regiones.getOrDefault(nombre, porDefecto);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+
+        /**
+         * Cantidad máxima de entradas en memoria
+         */
+        private long maximoEntradas;
+
+        /**
+         * Vigencia desde la escritura; acota cuánto tarda en verse un cambio hecho desde otra instancia
+         */
+        private Duration ttl;
+    }
+}
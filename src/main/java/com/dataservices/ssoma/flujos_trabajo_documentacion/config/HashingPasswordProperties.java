@@ -0,0 +1,36 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "ssoma.seguridad.password")
+public class HashingPasswordProperties {
+
+    /**
+     * Factor de costo de BCrypt (4-31); cada punto duplica el tiempo de cálculo
+     */
+    private int costo = 10;
+
+    /**
+     * Hilos dedicados a BCrypt; por defecto uno por núcleo
+     */
+    private int hilos = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Operaciones que pueden esperar un hilo libre antes de rechazar con 503
+     */
+    private int capacidadCola = 64;
+
+    /**
+     * Tiempo máximo de una operación, contando la espera en cola
+     */
+    private Duration tiempoMaximoEspera = Duration.ofSeconds(2);
+
+    /**
+     * Recalcula el hash al iniciar sesión cuando su costo difiere del configurado
+     */
+    private boolean rehashAlAutenticar = true;
+}
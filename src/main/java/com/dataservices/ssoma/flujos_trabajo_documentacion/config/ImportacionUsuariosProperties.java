@@ -0,0 +1,20 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ssoma.usuarios.importacion")
+public class ImportacionUsuariosProperties {
+
+    /**
+     * Filas máximas por solicitud de importación
+     */
+    private int maximoFilas = 5_000;
+
+    /**
+     * Usuarios por lote: cada lote se inserta en un batch JDBC, se confirma en su propia transacción
+     * y genera un único registro de auditoría
+     */
+    private int tamanoLote = 500;
+}
@@ -0,0 +1,38 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "ssoma.seguridad.jwt")
+public class JwtProperties {
+
+    /**
+     * Acepta tokens Bearer en /api/** (cadena de seguridad sin sesión). Opcional: requiere configurar el secreto
+     */
+    private boolean habilitado = false;
+
+    /**
+     * Exige token en /api/** salvo en los endpoints de autenticación
+     */
+    private boolean requerido = false;
+
+    /**
+     * Clave HMAC en Base64 (mínimo 256 bits), la misma en todas las instancias.
+     * Obligatoria si habilitado o requerido es true: sin ella la aplicación no arranca
+     */
+    private String secreto;
+
+    /**
+     * Claves anteriores que se siguen aceptando para verificar durante una rotación
+     */
+    private List<String> secretosAnteriores = new ArrayList<>();
+
+    private String emisor = "ssoma-flujos-trabajo";
+
+    private Duration expiracion = Duration.ofMinutes(30);
+}
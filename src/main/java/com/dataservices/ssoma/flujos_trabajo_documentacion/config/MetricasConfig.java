@@ -0,0 +1,40 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.metricas.ContadorSentenciasSql;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.metricas.SentenciasPorSolicitudFilter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas propias expuestas en /actuator/prometheus, además de las de Spring Boot (HTTP, HikariCP, JVM)
+ * y las estadísticas de Hibernate
+ */
+@Configuration
+public class MetricasConfig {
+
+    /**
+     * Habilita @Timed; los servicios lo declaran a nivel de clase (métrica ssoma.servicio, tags class y method)
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorSentenciasSql() {
+        return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorSentenciasSql());
+    }
+
+    @Bean
+    public FilterRegistrationBean<SentenciasPorSolicitudFilter> sentenciasPorSolicitudFilter(MeterRegistry registry) {
+        FilterRegistrationBean<SentenciasPorSolicitudFilter> registro =
+                new FilterRegistrationBean<>(new SentenciasPorSolicitudFilter(registry));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
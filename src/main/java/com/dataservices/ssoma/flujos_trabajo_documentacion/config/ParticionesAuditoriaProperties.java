@@ -0,0 +1,24 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "ssoma.auditoria.particiones")
+public class ParticionesAuditoriaProperties {
+
+    /**
+     * Crea al arrancar y de forma programada las particiones mensuales de los próximos meses
+     */
+    private boolean mantenimientoHabilitado = true;
+
+    /**
+     * Cantidad de meses futuros con partición creada de antemano (además del mes en curso)
+     */
+    private int mesesAnticipados = 3;
+
+    /**
+     * Expresión cron del mantenimiento programado
+     */
+    private String cron = "0 0 2 * * *";
+}
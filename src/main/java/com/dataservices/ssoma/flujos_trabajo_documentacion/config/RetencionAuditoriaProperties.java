@@ -0,0 +1,43 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "ssoma.auditoria.retencion")
+public class RetencionAuditoriaProperties {
+
+    /**
+     * Activa la ejecución programada de las políticas de retención
+     */
+    private boolean habilitada = false;
+
+    /**
+     * Expresión cron de la ejecución programada
+     */
+    private String cron = "0 30 3 * * *";
+
+    /**
+     * Filas eliminadas por sentencia; cada lote se confirma en su propia transacción
+     */
+    private int tamanoLote = 5_000;
+
+    /**
+     * Pausa entre lotes para no acaparar E/S ni el autovacuum
+     */
+    private Duration pausaEntreLotes = Duration.ofMillis(100);
+
+    /**
+     * Días de retención de las acciones sin política propia (null = conservar siempre)
+     */
+    private Integer diasPorDefecto;
+
+    /**
+     * Días de retención por acción, p. ej. LOGIN_EXITOSO: 90
+     */
+    private Map<String, Integer> politicas = new LinkedHashMap<>();
+}
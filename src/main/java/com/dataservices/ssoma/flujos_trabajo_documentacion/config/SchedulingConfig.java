@@ -0,0 +1,9 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,37 +1,51 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
 
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.ApiResponse;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.security.CustomUserDetailsService;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.JwtAuthenticationFilter;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.JwtTokenProvider;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.PasswordEncoderAcotado;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
+@EnableConfigurationProperties({CachePrincipalesProperties.class, JwtProperties.class, HashingPasswordProperties.class})
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoderAcotado passwordEncoder(HashingPasswordProperties hashingPasswordProperties) {
+        return new PasswordEncoderAcotado(hashingPasswordProperties);
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Con costo BCrypt distinto del configurado, el hash se recalcula al iniciar sesión
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -40,15 +54,48 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * API sin sesión: cada petición se autentica con su token Bearer, sin consultar la base de datos
+     */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    @Order(1)
+    @ConditionalOnProperty(prefix = "ssoma.seguridad.jwt", name = "habilitado", havingValue = "true")
+    public SecurityFilterChain apiFilterChain(HttpSecurity http, JwtTokenProvider jwtTokenProvider,
+                                              JwtProperties jwtProperties, ObjectMapper objectMapper) throws Exception {
+        http.securityMatcher("/api/**")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(authz -> {
+                    if (jwtProperties.isRequerido()) {
+                        authz.requestMatchers("/api/v1/usuarios/autenticar/**", "/api/v1/usuarios/validar-credenciales")
+                                .permitAll()
+                                .anyRequest().authenticated();
+                    } else {
+                        authz.anyRequest().permitAll();
+                    }
+                })
+                .exceptionHandling(excepciones -> excepciones
+                        .authenticationEntryPoint((request, response, authException) -> {
+                            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+                            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                            objectMapper.writeValue(response.getOutputStream(),
+                                    ApiResponse.error("Token ausente, inválido o expirado", "AUTHENTICATION_ERROR"));
+                        }))
+                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenProvider), UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, DaoAuthenticationProvider authenticationProvider)
+            throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authz -> authz
                         // Permitir todo por ahora para testing
                         .anyRequest().permitAll()
                 );
 
-        http.authenticationProvider(authenticationProvider());
+        http.authenticationProvider(authenticationProvider);
 
         return http.build();
     }
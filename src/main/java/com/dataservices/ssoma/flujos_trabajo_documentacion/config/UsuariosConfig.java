@@ -0,0 +1,9 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ImportacionUsuariosProperties.class)
+public class UsuariosConfig {
+}
@@ -1,7 +1,14 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.controller;
 
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.AuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadoColaAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.FiltroAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.FormatoExportacion;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.GranularidadSerie;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ResultadoRetencionDTO;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.ApiResponse;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.CursorPageResponse;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.PageResponse;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.service.AuditoriaService;
 import lombok.RequiredArgsConstructor;
@@ -11,10 +18,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.UUID;
 
@@ -59,6 +71,56 @@ public class AuditoriaController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<AuditoriaDTO>>> obtenerAuditoriasPorCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+
+        log.info("Solicitud para obtener auditorías por cursor - Tamaño: {}", size);
+
+        CursorPageResponse<AuditoriaDTO> pagina = auditoriaService.obtenerAuditoriasPorCursor(cursor, size, incluirTotal);
+        ApiResponse<CursorPageResponse<AuditoriaDTO>> response = ApiResponse.success(pagina);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Búsqueda combinada por usuario, acción, fechas y contenido de detallesJson, paginada por cursor.
+     * Ejemplos: contiene={"rolId":"..."}, clave=cambios&clave=motivo, ruta=cambios.estado&valor=true
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<ApiResponse<CursorPageResponse<AuditoriaDTO>>> buscarAuditorias(
+            @RequestParam(required = false) UUID usuarioId,
+            @RequestParam(required = false) String accion,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) String contiene,
+            @RequestParam(name = "clave", required = false) List<String> claves,
+            @RequestParam(required = false) String ruta,
+            @RequestParam(required = false) String valor,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        FiltroAuditoriaDTO filtro = FiltroAuditoriaDTO.builder()
+                .usuarioId(usuarioId)
+                .accion(accion)
+                .fechaInicio(fechaInicio)
+                .fechaFin(fechaFin)
+                .contiene(contiene)
+                .claves(claves)
+                .ruta(ruta)
+                .valor(valor)
+                .build();
+
+        log.info("Solicitud para buscar auditorías - Tamaño: {}", size);
+
+        CursorPageResponse<AuditoriaDTO> pagina = auditoriaService.buscarAuditorias(filtro, cursor, size);
+        ApiResponse<CursorPageResponse<AuditoriaDTO>> response = ApiResponse.success(pagina);
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/usuario/{usuarioId}")
     public ResponseEntity<ApiResponse<List<AuditoriaDTO>>> obtenerAuditoriasPorUsuario(@PathVariable UUID usuarioId) {
         log.info("Solicitud para obtener auditorías de usuario ID: {}", usuarioId);
@@ -87,6 +149,22 @@ public class AuditoriaController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/usuario/{usuarioId}/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<AuditoriaDTO>>> obtenerAuditoriasPorUsuarioPorCursor(
+            @PathVariable UUID usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean incluirTotal) {
+
+        log.info("Solicitud para obtener auditorías por cursor de usuario ID: {} - Tamaño: {}", usuarioId, size);
+
+        CursorPageResponse<AuditoriaDTO> pagina =
+                auditoriaService.obtenerAuditoriasPorUsuarioPorCursor(usuarioId, cursor, size, incluirTotal);
+        ApiResponse<CursorPageResponse<AuditoriaDTO>> response = ApiResponse.success(pagina);
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/accion/{accion}")
     public ResponseEntity<ApiResponse<List<AuditoriaDTO>>> obtenerAuditoriasPorAccion(@PathVariable String accion) {
         log.info("Solicitud para obtener auditorías por acción: {}", accion);
@@ -124,14 +202,82 @@ public class AuditoriaController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Series de actividad desde el resumen horario; no recorre AUDITORIA
+     */
+    @GetMapping("/estadisticas")
+    public ResponseEntity<ApiResponse<EstadisticasAuditoriaDTO>> obtenerEstadisticasActividad(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(defaultValue = "dia") String granularidad,
+            @RequestParam(required = false) String accion,
+            @RequestParam(required = false) UUID usuarioId,
+            @RequestParam(defaultValue = "false") boolean agruparPorUsuario) {
+
+        log.info("Solicitud de estadísticas de auditoría entre {} y {} por {}", fechaInicio, fechaFin, granularidad);
+
+        EstadisticasAuditoriaDTO estadisticas = auditoriaService.obtenerEstadisticasActividad(
+                fechaInicio, fechaFin, GranularidadSerie.desde(granularidad), accion, usuarioId, agruparPorUsuario);
+        ApiResponse<EstadisticasAuditoriaDTO> response = ApiResponse.success(estadisticas);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarAuditorias(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) UUID usuarioId,
+            @RequestParam(required = false) String accion,
+            @RequestParam(defaultValue = "ndjson") String formato) {
+
+        log.info("Solicitud para exportar auditorías entre {} y {} en formato {}", fechaInicio, fechaFin, formato);
+
+        FormatoExportacion formatoExportacion = FormatoExportacion.desde(formato);
+        if (fechaFin.isBefore(fechaInicio)) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la fecha de inicio");
+        }
+
+        // Se escribe directamente sobre la respuesta, fuera del hilo de Tomcat y sin acumular filas en memoria
+        StreamingResponseBody cuerpo = salida -> auditoriaService.exportarAuditorias(
+                fechaInicio, fechaFin, usuarioId, accion, formatoExportacion, salida);
+
+        String nombreArchivo = "auditorias_" + fechaInicio.format(DateTimeFormatter.BASIC_ISO_DATE) + "_"
+                + fechaFin.format(DateTimeFormatter.BASIC_ISO_DATE) + "." + formatoExportacion.getExtension();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoExportacion.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(nombreArchivo).build().toString())
+                .body(cuerpo);
+    }
+
     @DeleteMapping("/anteriores/{fecha}")
-    public ResponseEntity<ApiResponse<Void>> eliminarAuditoriasAnteriores(
+    public ResponseEntity<ApiResponse<ResultadoRetencionDTO>> eliminarAuditoriasAnteriores(
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fecha) {
 
         log.info("Solicitud para eliminar auditorías anteriores a: {}", fecha);
 
-        auditoriaService.eliminarAuditoriasAnteriores(fecha);
-        ApiResponse<Void> response = ApiResponse.success(null, "Auditorías eliminadas exitosamente");
+        ResultadoRetencionDTO resultado = auditoriaService.eliminarAuditoriasAnteriores(fecha);
+        ApiResponse<ResultadoRetencionDTO> response = ApiResponse.success(resultado, "Auditorías eliminadas exitosamente");
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/retencion/ejecutar")
+    public ResponseEntity<ApiResponse<ResultadoRetencionDTO>> ejecutarRetencionAuditorias() {
+        log.info("Solicitud para ejecutar las políticas de retención de auditorías");
+
+        ResultadoRetencionDTO resultado = auditoriaService.ejecutarRetencionAuditorias();
+        ApiResponse<ResultadoRetencionDTO> response = ApiResponse.success(resultado, "Retención ejecutada exitosamente");
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/retencion/ultima")
+    public ResponseEntity<ApiResponse<ResultadoRetencionDTO>> obtenerUltimaRetencionAuditorias() {
+        ResultadoRetencionDTO resultado = auditoriaService.obtenerUltimaRetencionAuditorias();
+        ApiResponse<ResultadoRetencionDTO> response = ApiResponse.success(resultado);
 
         return ResponseEntity.ok(response);
     }
@@ -149,4 +295,12 @@ public class AuditoriaController {
 
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/cola/estado")
+    public ResponseEntity<ApiResponse<EstadoColaAuditoriaDTO>> obtenerEstadoColaAuditoria() {
+        EstadoColaAuditoriaDTO estado = auditoriaService.obtenerEstadoColaAuditoria();
+        ApiResponse<EstadoColaAuditoriaDTO> response = ApiResponse.success(estado);
+
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,29 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * ETag de las consultas GET que se sondean. Son débiles (W/): ApiResponse lleva la hora de la respuesta,
+ * así que dos respuestas con la misma versión son equivalentes pero no idénticas byte a byte.
+ * Uso: si WebRequest.checkNotModified(etiqueta) da true, el controlador devuelve null y Spring responde 304.
+ */
+final class RespuestasCondicionales {
+
+    private RespuestasCondicionales() {
+    }
+
+    static String etiqueta(String recurso, String version) {
+        return "W/\"" + recurso + "-" + version + "\"";
+    }
+
+    /**
+     * 200 con no-cache: el cliente puede guardar la respuesta pero debe revalidarla con If-None-Match.
+     * Sin este encabezado Spring Security agrega no-store y los navegadores no la guardarían
+     */
+    static <T> ResponseEntity<T> ok(T cuerpo) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(cuerpo);
+    }
+}
@@ -1,8 +1,11 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.controller;
 
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasCacheDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ModoTotal;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.RolDTO;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.ApiResponse;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.PageResponse;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.SliceResponse;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.service.RolService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,10 +13,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -79,22 +84,58 @@ public class RolController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Listado sin COUNT: total=ninguno (por defecto) solo indica si hay página siguiente,
+     * total=aproximado usa la estimación del planificador y total=exacto cuenta las filas
+     */
+    @GetMapping("/slice")
+    public ResponseEntity<ApiResponse<SliceResponse<RolDTO>>> obtenerSliceRoles(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "nombreRol") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "ninguno") String total) {
+
+        log.info("Solicitud para obtener roles sin conteo - Página: {}, Tamaño: {}, Total: {}", page, size, total);
+
+        Sort sort = sortDir.equalsIgnoreCase("desc")
+                ? Sort.by(sortBy).descending()
+                : Sort.by(sortBy).ascending();
+
+        Pageable pageable = PageRequest.of(page, size, sort);
+        SliceResponse<RolDTO> roles = rolService.obtenerSliceRoles(pageable, ModoTotal.desde(total));
+        ApiResponse<SliceResponse<RolDTO>> response = ApiResponse.success(roles);
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/lista")
-    public ResponseEntity<ApiResponse<List<RolDTO>>> obtenerListaRoles() {
+    public ResponseEntity<ApiResponse<List<RolDTO>>> obtenerListaRoles(WebRequest request) {
         log.info("Solicitud para obtener lista completa de roles");
 
-        List<RolDTO> roles = rolService.obtenerTodosLosRoles();
+        // Si el cliente ya tiene esta versión se responde 304 sin consultar ni serializar los roles
+        if (request.checkNotModified(RespuestasCondicionales.etiqueta("roles", rolService.obtenerVersionRoles()))) {
+            return null;
+        }
+
+        // Versión leída antes que los roles: si cambian entre ambas lecturas la ETag queda atrás y el cliente
+        // vuelve a pedirlos, pero nunca asocia la versión nueva a la lista que tenía la caché de esta instancia
+        List<RolDTO> roles = rolService.obtenerTodosLosRolesDesdeBase();
         ApiResponse<List<RolDTO>> response = ApiResponse.success(roles);
 
-        return ResponseEntity.ok(response);
+        return RespuestasCondicionales.ok(response);
     }
 
     @GetMapping("/buscar")
-    public ResponseEntity<ApiResponse<List<RolDTO>>> buscarRolesPorNombre(@RequestParam String nombre) {
-        log.info("Solicitud para buscar roles con nombre: {}", nombre);
+    public ResponseEntity<ApiResponse<SliceResponse<RolDTO>>> buscarRolesPorNombre(
+            @RequestParam String nombre,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
 
-        List<RolDTO> roles = rolService.buscarRolesPorNombre(nombre);
-        ApiResponse<List<RolDTO>> response = ApiResponse.success(roles);
+        log.info("Solicitud para buscar roles con nombre: {} - Página: {}, Tamaño: {}", nombre, page, size);
+
+        Slice<RolDTO> roles = rolService.buscarRolesPorNombre(nombre, PageRequest.of(page, size));
+        ApiResponse<SliceResponse<RolDTO>> response = ApiResponse.success(SliceResponse.from(roles));
 
         return ResponseEntity.ok(response);
     }
@@ -147,4 +188,12 @@ public class RolController {
 
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/catalogo/estadisticas")
+    public ResponseEntity<ApiResponse<EstadisticasCacheDTO>> obtenerEstadisticasCatalogo() {
+        EstadisticasCacheDTO estadisticas = rolService.obtenerEstadisticasCatalogo();
+        ApiResponse<EstadisticasCacheDTO> response = ApiResponse.success(estadisticas);
+
+        return ResponseEntity.ok(response);
+    }
 }
@@ -1,8 +1,15 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.controller;
 
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasCacheDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasHashingDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ModoTotal;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ResultadoImportacionDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.SugerenciaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.TokenDTO;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.UsuarioDTO;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.ApiResponse;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.PageResponse;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.SliceResponse;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.service.UsuarioService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,11 +17,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -38,14 +51,56 @@ public class UsuarioController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Alta masiva desde un arreglo JSON; responde el resultado de cada fila
+     */
+    @PostMapping(value = "/importar", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<ResultadoImportacionDTO>> importarUsuarios(@RequestBody List<UsuarioDTO> usuarios) {
+        log.info("Solicitud para importar {} usuarios", usuarios.size());
+
+        ResultadoImportacionDTO resultado = usuarioService.importarUsuarios(usuarios);
+        ApiResponse<ResultadoImportacionDTO> response = ApiResponse.success(resultado, mensajeImportacion(resultado));
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Alta masiva desde un CSV con cabecera: personaId,nombreUsuario,password,rolId (o nombreRol)
+     */
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<ResultadoImportacionDTO>> importarUsuariosCsv(
+            @RequestParam("archivo") MultipartFile archivo) throws IOException {
+
+        log.info("Solicitud para importar usuarios desde CSV: {} ({} bytes)", archivo.getOriginalFilename(), archivo.getSize());
+
+        ResultadoImportacionDTO resultado;
+        try (InputStream csv = archivo.getInputStream()) {
+            resultado = usuarioService.importarUsuariosCsv(csv);
+        }
+        ApiResponse<ResultadoImportacionDTO> response = ApiResponse.success(resultado, mensajeImportacion(resultado));
+
+        return ResponseEntity.ok(response);
+    }
+
+    private static String mensajeImportacion(ResultadoImportacionDTO resultado) {
+        return "Importación finalizada: " + resultado.getCreados() + " creados, "
+                + resultado.getRechazados() + " rechazados";
+    }
+
     @GetMapping("/{usuarioId}")
-    public ResponseEntity<ApiResponse<UsuarioDTO>> obtenerUsuarioPorId(@PathVariable UUID usuarioId) {
+    public ResponseEntity<ApiResponse<UsuarioDTO>> obtenerUsuarioPorId(@PathVariable UUID usuarioId, WebRequest request) {
         log.info("Solicitud para obtener usuario con ID: {}", usuarioId);
 
-        UsuarioDTO usuario = usuarioService.obtenerUsuarioPorId(usuarioId);
+        // Si el cliente ya tiene esta versión se responde 304 sin convertir ni serializar el usuario
+        String version = usuarioService.obtenerVersionUsuario(usuarioId);
+        if (request.checkNotModified(RespuestasCondicionales.etiqueta("usuario", version))) {
+            return null;
+        }
+
+        UsuarioDTO usuario = usuarioService.obtenerUsuarioPorIdDesdeBase(usuarioId);
         ApiResponse<UsuarioDTO> response = ApiResponse.success(usuario);
 
-        return ResponseEntity.ok(response);
+        return RespuestasCondicionales.ok(response);
     }
 
     @GetMapping("/nombre/{nombreUsuario}")
@@ -73,10 +128,16 @@ public class UsuarioController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "nombreUsuario") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            WebRequest request) {
 
         log.info("Solicitud para obtener todos los usuarios - Página: {}, Tamaño: {}", page, size);
 
+        // La ETag es la misma para todas las páginas: el cliente la guarda por URL
+        if (request.checkNotModified(RespuestasCondicionales.etiqueta("usuarios", usuarioService.obtenerVersionUsuarios()))) {
+            return null;
+        }
+
         Sort sort = sortDir.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
@@ -87,17 +148,51 @@ public class UsuarioController {
         PageResponse<UsuarioDTO> pageResponse = PageResponse.from(usuarios);
         ApiResponse<PageResponse<UsuarioDTO>> response = ApiResponse.success(pageResponse);
 
-        return ResponseEntity.ok(response);
+        return RespuestasCondicionales.ok(response);
+    }
+
+    /**
+     * Listado sin COUNT: total=ninguno (por defecto) solo indica si hay página siguiente,
+     * total=aproximado usa la estimación del planificador y total=exacto cuenta las filas
+     */
+    @GetMapping("/slice")
+    public ResponseEntity<ApiResponse<SliceResponse<UsuarioDTO>>> obtenerSliceUsuarios(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "nombreUsuario") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "ninguno") String total,
+            WebRequest request) {
+
+        log.info("Solicitud para obtener usuarios sin conteo - Página: {}, Tamaño: {}, Total: {}", page, size, total);
+
+        if (request.checkNotModified(RespuestasCondicionales.etiqueta("usuarios", usuarioService.obtenerVersionUsuarios()))) {
+            return null;
+        }
+
+        Sort sort = sortDir.equalsIgnoreCase("desc")
+                ? Sort.by(sortBy).descending()
+                : Sort.by(sortBy).ascending();
+
+        Pageable pageable = PageRequest.of(page, size, sort);
+        SliceResponse<UsuarioDTO> usuarios = usuarioService.obtenerSliceUsuarios(pageable, ModoTotal.desde(total));
+        ApiResponse<SliceResponse<UsuarioDTO>> response = ApiResponse.success(usuarios);
+
+        return RespuestasCondicionales.ok(response);
     }
 
     @GetMapping("/lista")
-    public ResponseEntity<ApiResponse<List<UsuarioDTO>>> obtenerListaUsuarios() {
+    public ResponseEntity<ApiResponse<List<UsuarioDTO>>> obtenerListaUsuarios(WebRequest request) {
         log.info("Solicitud para obtener lista completa de usuarios");
 
+        if (request.checkNotModified(RespuestasCondicionales.etiqueta("usuarios", usuarioService.obtenerVersionUsuarios()))) {
+            return null;
+        }
+
         List<UsuarioDTO> usuarios = usuarioService.obtenerTodosLosUsuarios();
         ApiResponse<List<UsuarioDTO>> response = ApiResponse.success(usuarios);
 
-        return ResponseEntity.ok(response);
+        return RespuestasCondicionales.ok(response);
     }
 
     @GetMapping("/rol/{rolId}")
@@ -111,11 +206,27 @@ public class UsuarioController {
     }
 
     @GetMapping("/buscar")
-    public ResponseEntity<ApiResponse<List<UsuarioDTO>>> buscarUsuariosPorNombre(@RequestParam String nombre) {
-        log.info("Solicitud para buscar usuarios con nombre: {}", nombre);
+    public ResponseEntity<ApiResponse<SliceResponse<UsuarioDTO>>> buscarUsuariosPorNombre(
+            @RequestParam String nombre,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
 
-        List<UsuarioDTO> usuarios = usuarioService.buscarUsuariosPorNombre(nombre);
-        ApiResponse<List<UsuarioDTO>> response = ApiResponse.success(usuarios);
+        log.info("Solicitud para buscar usuarios con nombre: {} - Página: {}, Tamaño: {}", nombre, page, size);
+
+        // El orden lo define la relevancia de la búsqueda
+        Slice<UsuarioDTO> usuarios = usuarioService.buscarUsuariosPorNombre(nombre, PageRequest.of(page, size));
+        ApiResponse<SliceResponse<UsuarioDTO>> response = ApiResponse.success(SliceResponse.from(usuarios));
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/sugerencias")
+    public ResponseEntity<ApiResponse<List<SugerenciaDTO>>> sugerirUsuarios(
+            @RequestParam String prefijo,
+            @RequestParam(defaultValue = "10") int limite) {
+
+        List<SugerenciaDTO> sugerencias = usuarioService.sugerirUsuarios(prefijo, limite);
+        ApiResponse<List<SugerenciaDTO>> response = ApiResponse.success(sugerencias);
 
         return ResponseEntity.ok(response);
     }
@@ -179,6 +290,21 @@ public class UsuarioController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/autenticar/token")
+    public ResponseEntity<ApiResponse<TokenDTO>> autenticarUsuarioConToken(
+            @RequestBody Map<String, String> credenciales) {
+
+        String nombreUsuario = credenciales.get("nombreUsuario");
+        String password = credenciales.get("password");
+
+        log.info("Solicitud de token para usuario: {}", nombreUsuario);
+
+        TokenDTO token = usuarioService.autenticarUsuarioConToken(nombreUsuario, password);
+        ApiResponse<TokenDTO> response = ApiResponse.success(token, "Autenticación exitosa");
+
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/validar-credenciales")
     public ResponseEntity<ApiResponse<Boolean>> validarCredenciales(
             @RequestBody Map<String, String> credenciales) {
@@ -217,4 +343,20 @@ public class UsuarioController {
 
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/cache-principales/estadisticas")
+    public ResponseEntity<ApiResponse<EstadisticasCacheDTO>> obtenerEstadisticasCachePrincipales() {
+        EstadisticasCacheDTO estadisticas = usuarioService.obtenerEstadisticasCachePrincipales();
+        ApiResponse<EstadisticasCacheDTO> response = ApiResponse.success(estadisticas);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/hashing/estadisticas")
+    public ResponseEntity<ApiResponse<EstadisticasHashingDTO>> obtenerEstadisticasHashing() {
+        EstadisticasHashingDTO estadisticas = usuarioService.obtenerEstadisticasHashing();
+        ApiResponse<EstadisticasHashingDTO> response = ApiResponse.success(estadisticas);
+
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,26 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadisticasAuditoriaDTO {
+
+    private GranularidadSerie granularidad;
+
+    // Rango efectivo, alineado a horas completas
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime fechaInicio;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime fechaFin;
+
+    private long total;
+    private List<PuntoActividadAuditoriaDTO> serie;
+}
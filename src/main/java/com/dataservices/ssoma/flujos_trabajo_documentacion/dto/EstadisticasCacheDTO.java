@@ -0,0 +1,23 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadisticasCacheDTO {
+
+    private String nombre;
+    private int entradas;
+
+    // Contadores acumulados desde el arranque
+    private long aciertos;
+    private long fallos;
+    private double tasaAciertos;
+    private long recargas;
+
+    private LocalDateTime ultimaRecarga;
+}
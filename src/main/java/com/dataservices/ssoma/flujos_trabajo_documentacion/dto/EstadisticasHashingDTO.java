@@ -0,0 +1,25 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadisticasHashingDTO {
+
+    private int costo;
+    private int hilos;
+    private int capacidadCola;
+    private int enCola;
+    private int activos;
+
+    // Contadores acumulados desde el arranque
+    private long rechazados;
+    private long expirados;
+    private long rehashes;
+
+    private List<LatenciaOperacionDTO> latencias;
+}
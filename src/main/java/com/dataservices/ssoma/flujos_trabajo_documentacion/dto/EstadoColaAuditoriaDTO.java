@@ -0,0 +1,32 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadoColaAuditoriaDTO {
+
+    private boolean habilitada;
+    private boolean activa;
+    private String politicaDesborde;
+    private int capacidad;
+    private int pendientes;
+
+    // Contadores acumulados desde el arranque
+    private long encolados;
+    private long escritos;
+    private long escritosSincronos;
+    private long descartadosColaLlena;
+    private long descartadosUsuarioInexistente;
+    private long perdidosPorError;
+    private long erroresPreparacion;
+    private long lotesEscritos;
+    private long lotesFallidos;
+
+    // Latencia de escritura de lotes
+    private long latenciaUltimoLoteMs;
+    private long latenciaMaximaLoteMs;
+    private double latenciaPromedioLoteMs;
+}
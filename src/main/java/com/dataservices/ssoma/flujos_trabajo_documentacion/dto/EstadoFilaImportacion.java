@@ -0,0 +1,12 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+public enum EstadoFilaImportacion {
+
+    CREADO,
+    // Datos incompletos, con formato incorrecto o rol inexistente
+    INVALIDO,
+    // El nombre de usuario o la persona ya existen, o se repiten en el mismo archivo
+    DUPLICADO,
+    // El lote de la fila no pudo insertarse
+    ERROR
+}
@@ -0,0 +1,21 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FilaImportacionDTO {
+
+    // Posición en la solicitud, desde 1 (en CSV no cuenta la cabecera)
+    private int fila;
+    private String nombreUsuario;
+    private EstadoFilaImportacion estado;
+    private UUID usuarioId;
+    private String mensaje;
+}
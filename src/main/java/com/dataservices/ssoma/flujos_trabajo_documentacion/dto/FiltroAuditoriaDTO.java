@@ -0,0 +1,32 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criterios de búsqueda de auditorías; los nulos no filtran
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FiltroAuditoriaDTO {
+
+    private UUID usuarioId;
+    private String accion;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+
+    // Documento JSON que detalles_json debe contener (operador @>)
+    private String contiene;
+
+    // Claves de primer nivel que deben existir todas (operador ?&)
+    private List<String> claves;
+
+    // Igualdad en una ruta separada por puntos, p. ej. ruta=cambios.campo&valor=rolId
+    private String ruta;
+    private String valor;
+}
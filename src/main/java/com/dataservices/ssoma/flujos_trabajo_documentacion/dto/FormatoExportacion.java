@@ -0,0 +1,24 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum FormatoExportacion {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    public static FormatoExportacion desde(String formato) {
+        for (FormatoExportacion valor : values()) {
+            if (valor.name().equalsIgnoreCase(formato)) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Formato de exportación no soportado: " + formato);
+    }
+}
@@ -0,0 +1,30 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+
+@Getter
+@RequiredArgsConstructor
+public enum GranularidadSerie {
+
+    HORA("hour", Duration.ofDays(31)),
+    DIA("day", Duration.ofDays(366 * 3)),
+    MES("month", null);
+
+    // Unidad de date_trunc en PostgreSQL
+    private final String unidad;
+
+    // Rango máximo consultable, para acotar la cantidad de puntos; null sin límite
+    private final Duration rangoMaximo;
+
+    public static GranularidadSerie desde(String granularidad) {
+        for (GranularidadSerie valor : values()) {
+            if (valor.name().equalsIgnoreCase(granularidad)) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Granularidad no soportada: " + granularidad);
+    }
+}
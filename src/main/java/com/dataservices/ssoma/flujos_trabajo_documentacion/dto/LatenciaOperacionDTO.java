@@ -0,0 +1,22 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LatenciaOperacionDTO {
+
+    private String operacion;
+    private long cantidad;
+    private double promedioMs;
+    private double maximoMs;
+
+    // Límite superior de la cubeta del histograma
+    private Long p50Ms;
+    private Long p95Ms;
+    private Long p99Ms;
+}
@@ -0,0 +1,25 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+/**
+ * Cómo se informa el total de elementos en un listado sin conteo
+ */
+public enum ModoTotal {
+
+    // Sin total: solo hasNext
+    NINGUNO,
+
+    // Estimación de las estadísticas de PostgreSQL (pg_class.reltuples), sin recorrer la tabla
+    APROXIMADO,
+
+    // COUNT(*) exacto
+    EXACTO;
+
+    public static ModoTotal desde(String modo) {
+        for (ModoTotal valor : values()) {
+            if (valor.name().equalsIgnoreCase(modo)) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Modo de total no soportado: " + modo);
+    }
+}
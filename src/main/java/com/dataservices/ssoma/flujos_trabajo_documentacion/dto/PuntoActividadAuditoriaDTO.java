@@ -0,0 +1,27 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PuntoActividadAuditoriaDTO {
+
+    // Inicio del período (hora, día o mes)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime periodo;
+
+    private String accion;
+
+    // Solo cuando la serie se agrupa por usuario
+    private UUID usuarioId;
+
+    private long cantidad;
+}
@@ -0,0 +1,18 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoImportacionDTO {
+
+    private int total;
+    private int creados;
+    private int rechazados;
+    private long duracionMs;
+    private List<FilaImportacionDTO> filas;
+}
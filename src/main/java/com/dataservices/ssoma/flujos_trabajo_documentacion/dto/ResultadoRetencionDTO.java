@@ -0,0 +1,37 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoRetencionDTO {
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime inicio;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime fin;
+
+    // false si la ejecución se interrumpió; volver a ejecutarla continúa donde quedó
+    private boolean completada;
+
+    private long filasEliminadas;
+    private long lotes;
+    private long duracionMs;
+    private double filasPorSegundo;
+
+    // Particiones mensuales eliminadas completas (sus filas no se cuentan en filasEliminadas)
+    private long particionesEliminadas;
+    private long filasEstimadasParticiones;
+
+    // Filas eliminadas por política ("*" = política por defecto o corte manual)
+    @Builder.Default
+    private Map<String, Long> filasPorPolitica = new LinkedHashMap<>();
+}
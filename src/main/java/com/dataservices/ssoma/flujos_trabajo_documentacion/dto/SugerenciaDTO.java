@@ -0,0 +1,15 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SugerenciaDTO {
+
+    private UUID id;
+    private String nombre;
+}
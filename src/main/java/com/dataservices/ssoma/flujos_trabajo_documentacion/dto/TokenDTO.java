@@ -0,0 +1,21 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenDTO {
+
+    private String token;
+
+    @Builder.Default
+    private String tipo = "Bearer";
+
+    private long expiraEnSegundos;
+    private LocalDateTime fechaExpiracion;
+    private UsuarioDTO usuario;
+}
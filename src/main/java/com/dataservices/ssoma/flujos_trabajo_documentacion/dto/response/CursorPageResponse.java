@@ -0,0 +1,44 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+
+    // Cursor opaco para pedir la página siguiente (null si no hay más)
+    private String nextCursor;
+
+    // Solo se calcula si se solicita explícitamente
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+
+    // Método estático para crear la respuesta a partir de size + 1 filas leídas
+    public static <T> CursorPageResponse<T> from(List<T> filas, int size,
+                                                 Function<T, String> cursorDe,
+                                                 Long totalElements) {
+        boolean hasNext = filas.size() > size;
+        List<T> content = hasNext ? filas.subList(0, size) : filas;
+
+        return CursorPageResponse.<T>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorDe.apply(content.get(content.size() - 1)) : null)
+                .totalElements(totalElements)
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página sin total: se sabe si hay siguiente leyendo una fila extra, sin ejecutar COUNT.
+ * El total solo se informa si se pide, exacto o aproximado.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceResponse<T> {
+
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean first;
+    private boolean hasNext;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+
+    // true si totalElements es una estimación
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean totalAproximado;
+
+    public static <T> SliceResponse<T> from(org.springframework.data.domain.Slice<T> slice) {
+        return from(slice, null, null);
+    }
+
+    public static <T> SliceResponse<T> from(org.springframework.data.domain.Slice<T> slice,
+                                            Long totalElements, Boolean totalAproximado) {
+        if (Boolean.TRUE.equals(totalAproximado) && slice.getPageable().isPaged()) {
+            // La estimación puede quedar atrás de las inserciones recientes: nunca menos de lo ya visto
+            long vistos = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+            totalElements = Math.max(totalElements, vistos);
+        }
+        return SliceResponse.<T>builder()
+                .content(slice.getContent())
+                .page(slice.getNumber())
+                .size(slice.getSize())
+                .first(slice.isFirst())
+                .hasNext(slice.hasNext())
+                .totalElements(totalElements)
+                .totalAproximado(totalAproximado)
+                .build();
+    }
+}
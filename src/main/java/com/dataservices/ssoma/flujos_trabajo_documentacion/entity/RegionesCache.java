@@ -0,0 +1,16 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.entity;
+
+/**
+ * Regiones de la caché de segundo nivel de Hibernate. Cada una se configura por nombre en
+ * ssoma.cache-segundo-nivel.regiones
+ */
+public final class RegionesCache {
+
+    public static final String USUARIOS = "usuarios";
+    public static final String USUARIOS_POR_NOMBRE = "usuarios-por-nombre";
+    public static final String ROLES = "roles";
+    public static final String CONSULTA_ROLES = "consulta-roles";
+
+    private RegionesCache() {
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
 import java.util.List;
@@ -11,6 +13,10 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "ROLES")
+@Cacheable
+// READ_WRITE y no NONSTRICT: entre el commit y la invalidación no se sirve una entrada anterior,
+// que quedaría asociada a la nueva ETag de GET /api/v1/roles/lista
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegionesCache.ROLES)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,7 +37,12 @@ public class Rol {
     @Column(name = "descripcion", columnDefinition = "TEXT")
     private String descripcion;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Relaciones
-    @OneToMany(mappedBy = "rol", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Sin cascada: eliminar un rol nunca elimina usuarios, fk_usuarios_rol lo impide
+    @OneToMany(mappedBy = "rol", fetch = FetchType.LAZY)
     private List<Usuario> usuarios;
 }
\ No newline at end of file
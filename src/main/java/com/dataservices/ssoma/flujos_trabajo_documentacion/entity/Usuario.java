@@ -5,13 +5,20 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.List;
 import java.util.UUID;
 
 @Entity
 @Table(name = "USUARIOS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = RegionesCache.USUARIOS)
+@NaturalIdCache(region = RegionesCache.USUARIOS_POR_NOMBRE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +37,8 @@ public class Usuario {
     @NotNull(message = "La persona es obligatoria")
     private UUID personaId;
 
+    // Mutable: el nombre de usuario se puede cambiar al actualizar el usuario
+    @NaturalId(mutable = true)
     @Column(name = "nombre_usuario", nullable = false, length = 100)
     @NotBlank(message = "El nombre de usuario es obligatorio")
     @Size(max = 100, message = "El nombre de usuario no puede exceder 100 caracteres")
@@ -43,6 +52,11 @@ public class Usuario {
     @NotNull(message = "El rol es obligatorio")
     private UUID rolId;
 
+    // Control optimista; también forma la ETag de GET /api/v1/usuarios/{usuarioId}
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Relaciones
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "rol_id", insertable = false, updatable = false)
@@ -2,6 +2,8 @@ package com.dataservices.ssoma.flujos_trabajo_documentacion.exception;
 
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -60,6 +62,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ServicioSaturadoException.class)
+    public ResponseEntity<ApiResponse<Object>> handleServicioSaturadoException(
+            ServicioSaturadoException ex, WebRequest request) {
+
+        log.warn("Servicio saturado: {}", ex.getMessage());
+
+        ApiResponse<Object> response = ApiResponse.error(ex.getMessage(), "SERVICE_OVERLOADED");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getReintentarEnSegundos()))
+                .body(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Object>> handleValidationException(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -88,6 +102,19 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    // Otra solicitud modificó el mismo usuario o rol entre la lectura y la escritura (@Version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<Object>> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, WebRequest request) {
+
+        log.warn("Modificación concurrente: {}", ex.getMessage());
+
+        ApiResponse<Object> response = ApiResponse.error(
+                "El recurso fue modificado por otra solicitud; vuelva a consultarlo e intente de nuevo",
+                "CONCURRENT_MODIFICATION");
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiResponse<Object>> handleIllegalArgumentException(
             IllegalArgumentException ex, WebRequest request) {
@@ -0,0 +1,15 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.exception;
+
+public class ServicioSaturadoException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public ServicioSaturadoException(String message, long reintentarEnSegundos) {
+        super(message);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
@@ -13,6 +13,7 @@ public interface RolMapper {
     RolDTO toDTO(Rol rol);
 
     @Mapping(target = "usuarios", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Rol toEntity(RolDTO rolDTO);
 
     List<RolDTO> toDTOList(List<Rol> roles);
@@ -22,5 +23,6 @@ public interface RolMapper {
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "rolId", ignore = true)
     @Mapping(target = "usuarios", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDTO(RolDTO rolDTO, @MappingTarget Rol rol);
 }
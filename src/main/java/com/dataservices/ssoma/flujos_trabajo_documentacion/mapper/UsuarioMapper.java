@@ -20,6 +20,7 @@ public interface UsuarioMapper {
     @Mapping(target = "passwordHash", ignore = true) // Se maneja en el servicio
     @Mapping(target = "rol", ignore = true)
     @Mapping(target = "auditorias", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Usuario toEntity(UsuarioDTO usuarioDTO);
 
     List<UsuarioDTO> toDTOList(List<Usuario> usuarios);
@@ -31,5 +32,6 @@ public interface UsuarioMapper {
     @Mapping(target = "passwordHash", ignore = true) // Se maneja en el servicio
     @Mapping(target = "rol", ignore = true)
     @Mapping(target = "auditorias", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntityFromDTO(UsuarioDTO usuarioDTO, @MappingTarget Usuario usuario);
 }
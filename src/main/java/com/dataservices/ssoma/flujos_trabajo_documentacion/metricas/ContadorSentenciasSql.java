@@ -0,0 +1,31 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.metricas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual entre {@link #iniciar()} y {@link #finalizar()}.
+ * Las consultas hechas con JdbcTemplate no pasan por Hibernate y no se cuentan.
+ */
+public class ContadorSentenciasSql implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTADOR = new ThreadLocal<>();
+
+    public static void iniciar() {
+        CONTADOR.set(new int[1]);
+    }
+
+    public static int finalizar() {
+        int[] contador = CONTADOR.get();
+        CONTADOR.remove();
+        return contador != null ? contador[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] contador = CONTADOR.get();
+        if (contador != null) {
+            contador[0]++;
+        }
+        return sql;
+    }
+}
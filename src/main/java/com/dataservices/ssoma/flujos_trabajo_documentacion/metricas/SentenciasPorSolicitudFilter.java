@@ -0,0 +1,43 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Registra cuántas sentencias SQL de Hibernate ejecuta cada solicitud a /api/**, por patrón de URI,
+ * para detectar N+1 y regresiones en la cantidad de consultas
+ */
+@RequiredArgsConstructor
+public class SentenciasPorSolicitudFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContadorSentenciasSql.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int sentencias = ContadorSentenciasSql.finalizar();
+            Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+            DistributionSummary.builder("ssoma.http.sentencias.sql")
+                    .description("Sentencias SQL de Hibernate por solicitud")
+                    .tag("uri", patron != null ? patron.toString() : "UNKNOWN")
+                    .tag("method", request.getMethod())
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(sentencias);
+        }
+    }
+}
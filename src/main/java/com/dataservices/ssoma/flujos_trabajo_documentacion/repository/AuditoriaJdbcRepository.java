@@ -0,0 +1,338 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.AuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.FiltroAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.GranularidadSerie;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.PuntoActividadAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria.EventoAuditoria;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.util.CursorAuditoria;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Operaciones de AUDITORIA que se resuelven mejor con JDBC directo que con JPA
+ */
+@Repository
+public class AuditoriaJdbcRepository {
+
+    private static final String INSERT_PREFIJO =
+            "WITH insertadas AS (" +
+            "INSERT INTO auditoria (auditoria_id, usuario_id, accion, fecha_hora, detalles_json) " +
+            "SELECT v.auditoria_id, v.usuario_id, v.accion, v.fecha_hora, v.detalles_json FROM (VALUES ";
+
+    private static final String INSERT_FILA =
+            "(CAST(? AS uuid), CAST(? AS uuid), CAST(? AS varchar), CAST(? AS timestamp), CAST(? AS jsonb))";
+
+    private static final String INSERT_VALORES =
+            ") AS v (auditoria_id, usuario_id, accion, fecha_hora, detalles_json) ";
+
+    // Los eventos de usuarios inexistentes se descartan en la misma sentencia (antes: existsById por evento)
+    private static final String INSERT_FILTRO_USUARIO =
+            "WHERE EXISTS (SELECT 1 FROM usuarios u WHERE u.usuario_id = v.usuario_id) ";
+
+    private static final String INSERT_SUFIJO =
+            "RETURNING usuario_id, accion, fecha_hora), " +
+            // Resumen horario en la misma sentencia; el orden fijo evita interbloqueos entre escrituras concurrentes
+            "resumen AS (" +
+            "INSERT INTO auditoria_resumen_horario (hora, accion, usuario_id, cantidad) " +
+            "SELECT date_trunc('hour', fecha_hora), accion, usuario_id, count(*) FROM insertadas " +
+            "GROUP BY 1, 2, 3 ORDER BY 1, 2, 3 " +
+            "ON CONFLICT (hora, accion, usuario_id) " +
+            "DO UPDATE SET cantidad = auditoria_resumen_horario.cantidad + EXCLUDED.cantidad) " +
+            "SELECT count(*) FROM insertadas";
+
+    // Nombre que asigna crear_particion_auditoria (V2__particionar_auditoria.sql)
+    private static final Pattern PARTICION_MENSUAL = Pattern.compile("auditoria_p(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TimeZone zonaHorariaJdbc;
+
+    public AuditoriaJdbcRepository(JdbcTemplate jdbcTemplate,
+                                   @Value("${spring.jpa.properties.hibernate.jdbc.time_zone:UTC}") String zonaHorariaJdbc) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.zonaHorariaJdbc = TimeZone.getTimeZone(zonaHorariaJdbc);
+    }
+
+    /**
+     * Inserta los eventos con un único INSERT multi-fila y suma cada uno en auditoria_resumen_horario.
+     * Devuelve la cantidad de eventos insertados
+     */
+    public int insertarLote(List<EventoAuditoria> eventos) {
+        return insertar(eventos, true);
+    }
+
+    /**
+     * Igual que {@link #insertarLote(List)} pero sin descartar los eventos de usuarios inexistentes,
+     * para eventos que se registran cuando el usuario ya fue eliminado (USUARIO_ELIMINADO)
+     */
+    public int insertarSinVerificarUsuario(List<EventoAuditoria> eventos) {
+        return insertar(eventos, false);
+    }
+
+    private int insertar(List<EventoAuditoria> eventos, boolean verificarUsuario) {
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder(INSERT_PREFIJO.length() + INSERT_VALORES.length()
+                + INSERT_FILTRO_USUARIO.length() + INSERT_SUFIJO.length()
+                + eventos.size() * (INSERT_FILA.length() + 1));
+        sql.append(INSERT_PREFIJO);
+        for (int i = 0; i < eventos.size(); i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(INSERT_FILA);
+        }
+        sql.append(INSERT_VALORES);
+        if (verificarUsuario) {
+            sql.append(INSERT_FILTRO_USUARIO);
+        }
+        sql.append(INSERT_SUFIJO);
+
+        Integer insertados = jdbcTemplate.query(sql.toString(), (PreparedStatement ps) -> {
+            // Misma conversión que aplica Hibernate con hibernate.jdbc.time_zone
+            Calendar calendario = Calendar.getInstance(zonaHorariaJdbc);
+            int indice = 1;
+            for (EventoAuditoria evento : eventos) {
+                ps.setString(indice++, evento.getAuditoriaId().toString());
+                ps.setString(indice++, evento.getUsuarioId().toString());
+                ps.setString(indice++, evento.getAccion());
+                ps.setTimestamp(indice++, Timestamp.valueOf(evento.getFechaHora()), calendario);
+                ps.setString(indice++, evento.getDetallesJson());
+            }
+        }, (ResultSetExtractor<Integer>) rs -> rs.next() ? rs.getInt(1) : 0);
+        return insertados != null ? insertados : 0;
+    }
+
+    /**
+     * Elimina como máximo {@code limite} filas anteriores al corte, opcionalmente solo de una acción
+     * o excluyendo un conjunto de acciones. Fuera de una transacción, cada llamada se confirma por separado.
+     */
+    public int eliminarLoteAnteriorA(LocalDateTime corte, String accion, Collection<String> accionesExcluidas, int limite) {
+        // El fecha_hora < ? del DELETE exterior permite descartar particiones; sin él cada lote
+        // probaría la clave primaria de todas, incluidas las de los meses en curso
+        StringBuilder sql = new StringBuilder(
+                "DELETE FROM auditoria WHERE (auditoria_id, fecha_hora) IN " +
+                "(SELECT auditoria_id, fecha_hora FROM auditoria WHERE fecha_hora < ?");
+        if (accion != null) {
+            sql.append(" AND accion = ?");
+        }
+        boolean excluir = accionesExcluidas != null && !accionesExcluidas.isEmpty();
+        if (excluir) {
+            sql.append(" AND accion <> ALL (?)");
+        }
+        sql.append(" LIMIT ?) AND fecha_hora < ?");
+
+        return jdbcTemplate.update((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            Timestamp corteJdbc = Timestamp.valueOf(corte);
+            Calendar calendario = Calendar.getInstance(zonaHorariaJdbc);
+            int indice = 1;
+            ps.setTimestamp(indice++, corteJdbc, calendario);
+            if (accion != null) {
+                ps.setString(indice++, accion);
+            }
+            if (excluir) {
+                ps.setArray(indice++, con.createArrayOf("varchar", accionesExcluidas.toArray()));
+            }
+            ps.setInt(indice++, limite);
+            ps.setTimestamp(indice, corteJdbc, calendario);
+            return ps;
+        });
+    }
+
+    /**
+     * Búsqueda con keyset sobre (fecha_hora DESC, auditoria_id DESC). Los filtros sobre detalles_json
+     * se resuelven con los índices GIN de V3__indices_detalles_auditoria.sql.
+     *
+     * @param contenciones documentos JSON ya validados que detalles_json debe contener (operador @>)
+     */
+    public List<AuditoriaDTO> buscar(FiltroAuditoriaDTO filtro, List<String> contenciones, CursorAuditoria cursor,
+                                     int limite) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT auditoria_id, usuario_id, accion, fecha_hora, detalles_json::text FROM auditoria WHERE true");
+        List<Object> parametros = new ArrayList<>();
+        Calendar calendario = Calendar.getInstance(zonaHorariaJdbc);
+
+        if (filtro.getUsuarioId() != null) {
+            sql.append(" AND usuario_id = ?");
+            parametros.add(filtro.getUsuarioId());
+        }
+        if (filtro.getAccion() != null) {
+            sql.append(" AND accion = ?");
+            parametros.add(filtro.getAccion());
+        }
+        if (filtro.getFechaInicio() != null) {
+            sql.append(" AND fecha_hora >= ?");
+            parametros.add(Timestamp.valueOf(filtro.getFechaInicio()));
+        }
+        if (filtro.getFechaFin() != null) {
+            sql.append(" AND fecha_hora <= ?");
+            parametros.add(Timestamp.valueOf(filtro.getFechaFin()));
+        }
+        for (String contencion : contenciones) {
+            sql.append(" AND detalles_json @> CAST(? AS jsonb)");
+            parametros.add(contencion);
+        }
+        boolean filtrarClaves = filtro.getClaves() != null && !filtro.getClaves().isEmpty();
+        if (filtrarClaves) {
+            // "??&" es el operador ?& escapado para el driver JDBC
+            sql.append(" AND detalles_json ??& ?");
+        }
+        if (cursor != null) {
+            sql.append(" AND (fecha_hora, auditoria_id) < (?, ?)");
+        }
+        sql.append(" ORDER BY fecha_hora DESC, auditoria_id DESC LIMIT ?");
+
+        return jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            int indice = 1;
+            for (Object parametro : parametros) {
+                if (parametro instanceof Timestamp fecha) {
+                    ps.setTimestamp(indice++, fecha, calendario);
+                } else {
+                    ps.setObject(indice++, parametro);
+                }
+            }
+            if (filtrarClaves) {
+                ps.setArray(indice++, con.createArrayOf("text", filtro.getClaves().toArray()));
+            }
+            if (cursor != null) {
+                ps.setTimestamp(indice++, Timestamp.valueOf(cursor.getFechaHora()), calendario);
+                ps.setObject(indice++, cursor.getAuditoriaId());
+            }
+            ps.setInt(indice, limite);
+            return ps;
+        }, (rs, fila) -> AuditoriaDTO.builder()
+                .auditoriaId(rs.getObject(1, UUID.class))
+                .usuarioId(rs.getObject(2, UUID.class))
+                .accion(rs.getString(3))
+                .fechaHora(rs.getTimestamp(4, calendario).toLocalDateTime())
+                .detallesJson(rs.getString(5))
+                .build());
+    }
+
+    /**
+     * Serie de actividad desde auditoria_resumen_horario, sin leer AUDITORIA. El rango [desde, hasta)
+     * debe estar alineado a horas completas.
+     */
+    public List<PuntoActividadAuditoriaDTO> resumirActividad(GranularidadSerie granularidad, LocalDateTime desde,
+                                                            LocalDateTime hasta, String accion, UUID usuarioId,
+                                                            boolean agruparPorUsuario) {
+        // La unidad proviene del enum, no de la petición
+        String periodo = "date_trunc('" + granularidad.getUnidad() + "', hora)";
+        StringBuilder sql = new StringBuilder("SELECT ").append(periodo).append(", accion, ")
+                .append(agruparPorUsuario ? "usuario_id" : "NULL::uuid")
+                .append(", sum(cantidad) FROM auditoria_resumen_horario WHERE hora >= ? AND hora < ?");
+        if (accion != null) {
+            sql.append(" AND accion = ?");
+        }
+        if (usuarioId != null) {
+            sql.append(" AND usuario_id = ?");
+        }
+        sql.append(agruparPorUsuario ? " GROUP BY 1, 2, 3 ORDER BY 1, 2, 3" : " GROUP BY 1, 2 ORDER BY 1, 2");
+
+        Calendar calendario = Calendar.getInstance(zonaHorariaJdbc);
+        return jdbcTemplate.query(sql.toString(), (PreparedStatement ps) -> {
+            int indice = 1;
+            ps.setTimestamp(indice++, Timestamp.valueOf(desde), calendario);
+            ps.setTimestamp(indice++, Timestamp.valueOf(hasta), calendario);
+            if (accion != null) {
+                ps.setString(indice++, accion);
+            }
+            if (usuarioId != null) {
+                ps.setObject(indice, usuarioId);
+            }
+        }, (rs, fila) -> PuntoActividadAuditoriaDTO.builder()
+                .periodo(rs.getTimestamp(1, calendario).toLocalDateTime())
+                .accion(rs.getString(2))
+                .usuarioId(rs.getObject(3, UUID.class))
+                .cantidad(rs.getLong(4))
+                .build());
+    }
+
+    public boolean esTablaParticionada() {
+        Boolean particionada = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('auditoria'))",
+                Boolean.class);
+        return Boolean.TRUE.equals(particionada);
+    }
+
+    /**
+     * Crea, si no existe, la partición del mes que contiene la fecha, moviendo a ella las filas del mes
+     * que hubieran caído en auditoria_default. Devuelve su nombre, o null si el mes ya está cubierto
+     * por el rango de otra partición
+     */
+    public String crearParticionMensual(LocalDate mes) {
+        return jdbcTemplate.queryForObject("SELECT crear_particion_auditoria(?)", String.class, Date.valueOf(mes));
+    }
+
+    public List<ParticionMensual> listarParticionesMensuales() {
+        List<ParticionMensual> particiones = jdbcTemplate.query(
+                "SELECT c.relname, greatest(c.reltuples, 0)::bigint FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass('auditoria')",
+                (rs, fila) -> {
+                    Matcher matcher = PARTICION_MENSUAL.matcher(rs.getString(1));
+                    if (!matcher.matches()) {
+                        return null;
+                    }
+                    LocalDate desde = LocalDate.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)), 1);
+                    return new ParticionMensual(rs.getString(1), desde, rs.getLong(2));
+                });
+        return particiones.stream()
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(ParticionMensual::getDesde))
+                .toList();
+    }
+
+    public boolean particionPorDefectoTieneFilas() {
+        Boolean tieneFilas = jdbcTemplate.queryForObject(
+                "SELECT to_regclass('auditoria_default') IS NOT NULL AND EXISTS (SELECT 1 FROM auditoria_default)",
+                Boolean.class);
+        return Boolean.TRUE.equals(tieneFilas);
+    }
+
+    /**
+     * Separa la partición de AUDITORIA y la elimina; mucho más barato que borrar sus filas
+     */
+    public void eliminarParticion(ParticionMensual particion) {
+        // El nombre proviene de pg_class y ya fue validado contra PARTICION_MENSUAL
+        jdbcTemplate.execute("ALTER TABLE auditoria DETACH PARTITION " + particion.getNombre());
+        jdbcTemplate.execute("DROP TABLE " + particion.getNombre());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ParticionMensual {
+
+        private final String nombre;
+        private final LocalDate desde;
+        private final long filasEstimadas;
+
+        public LocalDate getHasta() {
+            return desde.plusMonths(1);
+        }
+    }
+}
@@ -1,16 +1,22 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
 
 import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Auditoria;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface AuditoriaRepository extends JpaRepository<Auditoria, UUID> {
@@ -22,6 +28,7 @@ public interface AuditoriaRepository extends JpaRepository<Auditoria, UUID> {
     @Query("SELECT a FROM Auditoria a WHERE a.accion = :accion ORDER BY a.fechaHora DESC")
     List<Auditoria> findByAccion(@Param("accion") String accion);
 
+    // Los filtros por fecha_hora permiten a PostgreSQL descartar las particiones mensuales fuera del rango
     @Query("SELECT a FROM Auditoria a WHERE a.fechaHora BETWEEN :fechaInicio AND :fechaFin ORDER BY a.fechaHora DESC")
     List<Auditoria> findByFechaHoraBetween(@Param("fechaInicio") LocalDateTime fechaInicio,
                                            @Param("fechaFin") LocalDateTime fechaFin);
@@ -32,4 +39,55 @@ public interface AuditoriaRepository extends JpaRepository<Auditoria, UUID> {
                                                        @Param("fechaFin") LocalDateTime fechaFin);
 
     Page<Auditoria> findAllByOrderByFechaHoraDesc(Pageable pageable);
+
+    // Paginación por cursor (keyset): el costo no depende de la profundidad de la página y no hay COUNT
+    @Query("SELECT a FROM Auditoria a ORDER BY a.fechaHora DESC, a.auditoriaId DESC")
+    List<Auditoria> findPrimeraPagina(Pageable pageable);
+
+    @Query("SELECT a FROM Auditoria a WHERE a.fechaHora <= :fechaHora " +
+           "AND (a.fechaHora < :fechaHora OR a.auditoriaId < :auditoriaId) " +
+           "ORDER BY a.fechaHora DESC, a.auditoriaId DESC")
+    List<Auditoria> findPaginaDespuesDe(@Param("fechaHora") LocalDateTime fechaHora,
+                                        @Param("auditoriaId") UUID auditoriaId,
+                                        Pageable pageable);
+
+    @Query("SELECT a FROM Auditoria a WHERE a.usuarioId = :usuarioId ORDER BY a.fechaHora DESC, a.auditoriaId DESC")
+    List<Auditoria> findPrimeraPaginaPorUsuario(@Param("usuarioId") UUID usuarioId, Pageable pageable);
+
+    @Query("SELECT a FROM Auditoria a WHERE a.usuarioId = :usuarioId AND a.fechaHora <= :fechaHora " +
+           "AND (a.fechaHora < :fechaHora OR a.auditoriaId < :auditoriaId) " +
+           "ORDER BY a.fechaHora DESC, a.auditoriaId DESC")
+    List<Auditoria> findPaginaPorUsuarioDespuesDe(@Param("usuarioId") UUID usuarioId,
+                                                  @Param("fechaHora") LocalDateTime fechaHora,
+                                                  @Param("auditoriaId") UUID auditoriaId,
+                                                  Pageable pageable);
+
+    long countByUsuarioId(UUID usuarioId);
+
+    // Lectura por cursor de servidor para exportaciones: requiere transacción abierta y cerrar el Stream
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Auditoria a WHERE a.fechaHora BETWEEN :fechaInicio AND :fechaFin ORDER BY a.fechaHora DESC")
+    Stream<Auditoria> streamByFechaHoraBetween(@Param("fechaInicio") LocalDateTime fechaInicio,
+                                               @Param("fechaFin") LocalDateTime fechaFin);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Auditoria a WHERE a.usuarioId = :usuarioId AND a.fechaHora BETWEEN :fechaInicio AND :fechaFin ORDER BY a.fechaHora DESC")
+    Stream<Auditoria> streamByUsuarioIdAndFechaHoraBetween(@Param("usuarioId") UUID usuarioId,
+                                                           @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                           @Param("fechaFin") LocalDateTime fechaFin);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Auditoria a WHERE a.accion = :accion AND a.fechaHora BETWEEN :fechaInicio AND :fechaFin ORDER BY a.fechaHora DESC")
+    Stream<Auditoria> streamByAccionAndFechaHoraBetween(@Param("accion") String accion,
+                                                        @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                        @Param("fechaFin") LocalDateTime fechaFin);
+
+    // Recorre idx_auditoria_usuario_fecha y descarta las demás acciones en la base, sin enviarlas
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT a FROM Auditoria a WHERE a.usuarioId = :usuarioId AND a.accion = :accion " +
+            "AND a.fechaHora BETWEEN :fechaInicio AND :fechaFin ORDER BY a.fechaHora DESC")
+    Stream<Auditoria> streamByUsuarioIdAndAccionAndFechaHoraBetween(@Param("usuarioId") UUID usuarioId,
+                                                                    @Param("accion") String accion,
+                                                                    @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                                    @Param("fechaFin") LocalDateTime fechaFin);
 }
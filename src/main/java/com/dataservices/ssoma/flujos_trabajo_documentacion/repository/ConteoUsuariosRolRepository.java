@@ -0,0 +1,82 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cantidad de usuarios por rol (ROLES_CANTIDAD_USUARIOS, V7__cantidad_usuarios_por_rol.sql). Los ajustes deben
+ * hacerse en la misma transacción que la escritura en USUARIOS y después de ella: así la conciliación, que
+ * bloquea USUARIOS antes de recalcular, nunca pierde un ajuste en curso.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConteoUsuariosRolRepository {
+
+    // Ordenado por rol_id para que dos transacciones que ajustan los mismos roles los bloqueen en el mismo orden
+    private static final String AJUSTAR =
+            "INSERT INTO roles_cantidad_usuarios (rol_id, cantidad) " +
+            "SELECT rol_id, delta FROM unnest(?::uuid[], ?::bigint[]) AS d(rol_id, delta) ORDER BY rol_id " +
+            "ON CONFLICT (rol_id) DO UPDATE SET cantidad = roles_cantidad_usuarios.cantidad + EXCLUDED.cantidad";
+
+    private static final String CONCILIAR =
+            "WITH reales AS (" +
+            "SELECT rol_id, count(*) AS cantidad FROM usuarios GROUP BY rol_id " +
+            "UNION ALL " +
+            "SELECT c.rol_id, 0 FROM roles_cantidad_usuarios c " +
+            "WHERE NOT EXISTS (SELECT 1 FROM usuarios u WHERE u.rol_id = c.rol_id)), " +
+            "corregidos AS (" +
+            "INSERT INTO roles_cantidad_usuarios (rol_id, cantidad) " +
+            "SELECT rol_id, cantidad FROM reales ORDER BY rol_id " +
+            "ON CONFLICT (rol_id) DO UPDATE SET cantidad = EXCLUDED.cantidad " +
+            "WHERE roles_cantidad_usuarios.cantidad <> EXCLUDED.cantidad " +
+            "RETURNING rol_id) " +
+            "SELECT count(*) FROM corregidos";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Suma a cada rol su variación (negativa en bajas y en el rol anterior de un cambio de rol)
+     */
+    public void ajustar(Map<UUID, Long> variaciones) {
+        Map<UUID, Long> distintas = new HashMap<>(variaciones);
+        distintas.values().removeIf(variacion -> variacion == 0);
+        if (distintas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(AJUSTAR);
+            ps.setArray(1, con.createArrayOf("uuid", distintas.keySet().toArray()));
+            ps.setArray(2, con.createArrayOf("bigint", distintas.values().toArray()));
+            return ps;
+        });
+    }
+
+    public void ajustar(UUID rolId, long variacion) {
+        ajustar(Map.of(rolId, variacion));
+    }
+
+    public Map<UUID, Long> cantidadesPorRol() {
+        Map<UUID, Long> cantidades = new HashMap<>();
+        jdbcTemplate.query("SELECT rol_id, cantidad FROM roles_cantidad_usuarios",
+                (RowCallbackHandler) rs -> cantidades.put(rs.getObject(1, UUID.class), rs.getLong(2)));
+        return cantidades;
+    }
+
+    /**
+     * Recalcula las cantidades desde USUARIOS y devuelve cuántos roles se corrigieron. Requiere una transacción:
+     * USUARIOS queda bloqueada para escritura mientras se cuenta, para que ningún ajuste concurrente se pierda
+     */
+    public int conciliar() {
+        jdbcTemplate.execute("LOCK TABLE usuarios IN SHARE MODE");
+        Integer corregidos = jdbcTemplate.queryForObject(CONCILIAR, Integer.class);
+        return corregidos != null ? corregidos : 0;
+    }
+}
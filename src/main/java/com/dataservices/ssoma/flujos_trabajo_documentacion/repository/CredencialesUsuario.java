@@ -0,0 +1,21 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
+
+import java.util.UUID;
+
+/**
+ * Proyección con lo necesario para autenticar a un usuario, incluido el nombre del rol
+ */
+public interface CredencialesUsuario {
+
+    UUID getUsuarioId();
+
+    UUID getPersonaId();
+
+    String getNombreUsuario();
+
+    String getPasswordHash();
+
+    UUID getRolId();
+
+    String getNombreRol();
+}
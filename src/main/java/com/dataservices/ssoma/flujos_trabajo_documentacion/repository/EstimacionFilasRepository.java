@@ -0,0 +1,32 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Cantidad aproximada de filas de una tabla según las estadísticas del planificador.
+ * pg_class.reltuples se actualiza con ANALYZE/VACUUM (autovacuum), así que puede quedar
+ * desfasada respecto de las últimas inserciones, pero leerla no recorre la tabla.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EstimacionFilasRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Filas estimadas de la tabla; vacío si nunca fue analizada (reltuples = -1) o no existe
+     */
+    public OptionalLong estimarFilas(String tabla) {
+        List<Long> estimacion = jdbcTemplate.queryForList(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, tabla);
+        if (estimacion.isEmpty() || estimacion.get(0) == null || estimacion.get(0) < 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(estimacion.get(0));
+    }
+}
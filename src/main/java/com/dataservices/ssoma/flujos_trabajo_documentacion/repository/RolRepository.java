@@ -1,8 +1,14 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
 
+import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.RegionesCache;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Rol;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,11 +21,35 @@ public interface RolRepository extends JpaRepository<Rol, UUID> {
 
     Optional<Rol> findByNombreRol(String nombreRol);
 
-    @Query("SELECT r FROM Rol r WHERE r.nombreRol LIKE %:nombre%")
-    List<Rol> findByNombreRolContaining(@Param("nombre") String nombre);
+    // Lista completa en la caché de consultas; se invalida al modificar ROLES desde esta instancia
+    @Query("SELECT r FROM Rol r ORDER BY r.nombreRol")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = RegionesCache.CONSULTA_ROLES)
+    })
+    List<Rol> listarTodos();
 
-    boolean existsByNombreRol(String nombreRol);
+    // Sin caché de consultas ni de entidades, para /lista: su ETag sale de la versión leída en la base y la caché
+    // de esta instancia no ve los cambios hechos desde otras. REFRESH deja al día la región roles con lo leído
+    @Query("SELECT r FROM Rol r ORDER BY r.nombreRol")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = AvailableHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
+    List<Rol> listarTodosDesdeBase();
+
+    // Página sin COUNT: lee una fila extra para saber si hay siguiente
+    Slice<Rol> findAllBy(Pageable pageable);
 
-    @Query("SELECT r, COUNT(u) as cantidadUsuarios FROM Rol r LEFT JOIN r.usuarios u GROUP BY r")
-    List<Object[]> findRolesConCantidadUsuarios();
+    // Misma relevancia que UsuarioRepository.buscarPorSubcadena (idx_roles_nombre_trgm)
+    @Query(value = "SELECT r.* FROM roles r " +
+            "WHERE normalizar_busqueda(r.nombre_rol) LIKE '%' || normalizar_busqueda(:patron) || '%' " +
+            "ORDER BY normalizar_busqueda(r.nombre_rol) = normalizar_busqueda(:texto) DESC, " +
+            "normalizar_busqueda(r.nombre_rol) LIKE normalizar_busqueda(:patron) || '%' DESC, " +
+            "similarity(normalizar_busqueda(r.nombre_rol), normalizar_busqueda(:texto)) DESC, " +
+            "r.nombre_rol, r.rol_id",
+            nativeQuery = true)
+    Slice<Rol> buscarPorSubcadena(@Param("texto") String texto, @Param("patron") String patron, Pageable pageable);
+
+    boolean existsByNombreRol(String nombreRol);
 }
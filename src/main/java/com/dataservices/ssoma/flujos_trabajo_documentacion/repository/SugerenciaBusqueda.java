@@ -0,0 +1,13 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
+
+import java.util.UUID;
+
+/**
+ * Proyección mínima para autocompletado
+ */
+public interface SugerenciaBusqueda {
+
+    UUID getId();
+
+    String getNombre();
+}
@@ -0,0 +1,79 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Usuario;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Operaciones masivas sobre USUARIOS que no conviene resolver entidad por entidad con JPA
+ */
+@Repository
+@RequiredArgsConstructor
+public class UsuarioJdbcRepository {
+
+    // Las filas que chocan con una restricción única (nombre de usuario o persona, por ejemplo por otra
+    // importación concurrente) se omiten en lugar de abortar el lote; RETURNING indica cuáles entraron
+    private static final String INSERT_USUARIOS =
+            "INSERT INTO usuarios (usuario_id, persona_id, nombre_usuario, password_hash, rol_id) " +
+            "SELECT * FROM unnest(CAST(? AS uuid[]), CAST(? AS uuid[]), CAST(? AS varchar[]), " +
+            "CAST(? AS varchar[]), CAST(? AS uuid[])) " +
+            "ON CONFLICT DO NOTHING RETURNING usuario_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Nombres de usuario de la colección que ya existen, en una sola consulta
+     */
+    public Set<String> buscarNombresExistentes(Collection<String> nombresUsuario) {
+        if (nombresUsuario.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement("SELECT nombre_usuario FROM usuarios WHERE nombre_usuario = ANY (?)");
+            ps.setArray(1, con.createArrayOf("varchar", nombresUsuario.toArray()));
+            return ps;
+        }, (rs, fila) -> rs.getString(1)));
+    }
+
+    /**
+     * Personas de la colección que ya tienen usuario, en una sola consulta
+     */
+    public Set<UUID> buscarPersonasConUsuario(Collection<UUID> personaIds) {
+        if (personaIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement("SELECT persona_id FROM usuarios WHERE persona_id = ANY (?)");
+            ps.setArray(1, con.createArrayOf("uuid", personaIds.toArray()));
+            return ps;
+        }, (rs, fila) -> rs.getObject(1, UUID.class)));
+    }
+
+    /**
+     * Inserta los usuarios con un único INSERT multi-fila (un arreglo por columna) y devuelve los IDs
+     * de los que se insertaron; los que ya existían por nombre o persona quedan fuera del resultado
+     */
+    public Set<UUID> insertarLote(List<Usuario> usuarios) {
+        if (usuarios.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query((Connection con) -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_USUARIOS);
+            ps.setArray(1, con.createArrayOf("uuid", usuarios.stream().map(Usuario::getUsuarioId).toArray()));
+            ps.setArray(2, con.createArrayOf("uuid", usuarios.stream().map(Usuario::getPersonaId).toArray()));
+            ps.setArray(3, con.createArrayOf("varchar", usuarios.stream().map(Usuario::getNombreUsuario).toArray()));
+            ps.setArray(4, con.createArrayOf("varchar", usuarios.stream().map(Usuario::getPasswordHash).toArray()));
+            ps.setArray(5, con.createArrayOf("uuid", usuarios.stream().map(Usuario::getRolId).toArray()));
+            return ps;
+        }, (rs, fila) -> rs.getObject(1, UUID.class)));
+    }
+}
@@ -0,0 +1,15 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Usuario;
+
+import java.util.Optional;
+
+/**
+ * Búsquedas de Usuario por su natural-id (nombre de usuario), resueltas con la caché de segundo nivel.
+ * Pueden devolver datos de hasta la vigencia de la región si el usuario cambió en otra instancia:
+ * no usar para autenticar, que lee las credenciales con UsuarioRepository.findCredencialesByNombreUsuario
+ */
+public interface UsuarioNaturalIdRepository {
+
+    Optional<Usuario> buscarPorNombreUsuario(String nombreUsuario);
+}
@@ -0,0 +1,25 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+public class UsuarioNaturalIdRepositoryImpl implements UsuarioNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Resuelve nombre -> ID en la región usuarios-por-nombre y la entidad en la región usuarios;
+     * solo consulta la base si alguna de las dos no la tiene
+     */
+    @Override
+    public Optional<Usuario> buscarPorNombreUsuario(String nombreUsuario) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Usuario.class)
+                .loadOptional(nombreUsuario);
+    }
+}
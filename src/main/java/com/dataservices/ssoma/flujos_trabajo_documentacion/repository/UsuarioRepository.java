@@ -1,31 +1,82 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
 
 import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, UUID> {
+public interface UsuarioRepository extends JpaRepository<Usuario, UUID>, UsuarioNaturalIdRepository {
 
-    Optional<Usuario> findByNombreUsuario(String nombreUsuario);
+    // Una sola consulta con el rol, sin cargar la entidad ni navegar Usuario.rol
+    @Query("SELECT u.usuarioId AS usuarioId, u.personaId AS personaId, u.nombreUsuario AS nombreUsuario, " +
+            "u.passwordHash AS passwordHash, u.rolId AS rolId, r.nombreRol AS nombreRol " +
+            "FROM Usuario u LEFT JOIN u.rol r WHERE u.nombreUsuario = :nombreUsuario")
+    Optional<CredencialesUsuario> findCredencialesByNombreUsuario(@Param("nombreUsuario") String nombreUsuario);
 
     Optional<Usuario> findByPersonaId(UUID personaId);
 
+    // Directo de la base y no de la región usuarios: revalida la ETag aunque el cambio venga de otra instancia
+    @Query("SELECT u.version FROM Usuario u WHERE u.usuarioId = :usuarioId")
+    Optional<Long> findVersionByUsuarioId(@Param("usuarioId") UUID usuarioId);
+
+    // Cuerpo que acompaña a esa ETag, de la misma fuente; REFRESH deja al día la región usuarios con lo leído
+    @Query("SELECT u FROM Usuario u WHERE u.usuarioId = :usuarioId")
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = AvailableHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
+    Optional<Usuario> buscarPorIdDesdeBase(@Param("usuarioId") UUID usuarioId);
+
     List<Usuario> findByRolId(UUID rolId);
 
-    @Query("SELECT u FROM Usuario u WHERE u.nombreUsuario LIKE %:nombre%")
-    List<Usuario> findByNombreUsuarioContaining(@Param("nombre") String nombre);
+    // Exacto, a diferencia de roles_cantidad_usuarios; se detiene en la primera fila de idx_usuarios_rol
+    boolean existsByRolId(UUID rolId);
+
+    // Página sin COUNT: lee una fila extra para saber si hay siguiente
+    Slice<Usuario> findAllBy(Pageable pageable);
+
+    // Subcadena sin mayúsculas ni acentos (idx_usuarios_nombre_trgm). Relevancia: igual, prefijo, similitud
+    @Query(value = "SELECT u.* FROM usuarios u " +
+            "WHERE normalizar_busqueda(u.nombre_usuario) LIKE '%' || normalizar_busqueda(:patron) || '%' " +
+            "ORDER BY normalizar_busqueda(u.nombre_usuario) = normalizar_busqueda(:texto) DESC, " +
+            "normalizar_busqueda(u.nombre_usuario) LIKE normalizar_busqueda(:patron) || '%' DESC, " +
+            "similarity(normalizar_busqueda(u.nombre_usuario), normalizar_busqueda(:texto)) DESC, " +
+            "u.nombre_usuario, u.usuario_id",
+            nativeQuery = true)
+    Slice<Usuario> buscarPorSubcadena(@Param("texto") String texto, @Param("patron") String patron, Pageable pageable);
+
+    // Prefijo en el orden de idx_usuarios_nombre_prefijo: el índice resuelve filtro, orden y límite
+    @Query(value = "SELECT u.* FROM usuarios u " +
+            "WHERE normalizar_busqueda(u.nombre_usuario) COLLATE \"C\" LIKE normalizar_busqueda(:patron) || '%' " +
+            "ORDER BY normalizar_busqueda(u.nombre_usuario) COLLATE \"C\", u.usuario_id",
+            nativeQuery = true)
+    Slice<Usuario> buscarPorPrefijo(@Param("patron") String patron, Pageable pageable);
+
+    @Query(value = "SELECT u.usuario_id AS id, u.nombre_usuario AS nombre FROM usuarios u " +
+            "WHERE normalizar_busqueda(u.nombre_usuario) COLLATE \"C\" LIKE normalizar_busqueda(:patron) || '%' " +
+            "ORDER BY normalizar_busqueda(u.nombre_usuario) COLLATE \"C\" LIMIT :limite",
+            nativeQuery = true)
+    List<SugerenciaBusqueda> sugerirPorPrefijo(@Param("patron") String patron, @Param("limite") int limite);
 
     boolean existsByNombreUsuario(String nombreUsuario);
 
     boolean existsByPersonaId(UUID personaId);
 
-    @Query("SELECT COUNT(u) FROM Usuario u WHERE u.rolId = :rolId")
-    Long countByRolId(@Param("rolId") UUID rolId);
+    @Modifying
+    @Transactional
+    @Query("UPDATE Usuario u SET u.passwordHash = :passwordHash WHERE u.usuarioId = :usuarioId")
+    int actualizarPasswordHash(@Param("usuarioId") UUID usuarioId, @Param("passwordHash") String passwordHash);
 }
@@ -0,0 +1,32 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Versión de una tabla completa (VERSIONES_COLECCIONES, V8__versiones_entidades.sql). La incrementa un
+ * trigger diferido, una vez por transacción al confirmar (V11__version_colecciones_al_confirmar.sql),
+ * y el valor nuevo se ve recién después del commit.
+ * Para que una ETag no quede asociada a datos anteriores, la versión se lee antes que los datos.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VersionColeccionRepository {
+
+    public static final String USUARIOS = "usuarios";
+    public static final String ROLES = "roles";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long version(String coleccion) {
+        List<Long> version = jdbcTemplate.queryForList(
+                "SELECT version FROM versiones_colecciones WHERE coleccion = ?", Long.class, coleccion);
+        if (version.isEmpty()) {
+            throw new IllegalStateException("Colección sin versión: " + coleccion);
+        }
+        return version.get(0);
+    }
+}
@@ -0,0 +1,118 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.security;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.config.CachePrincipalesProperties;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasCacheDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché acotada en tamaño y tiempo de los UserPrincipal por nombre de usuario.
+ * Evita una consulta por cada inicio de sesión; UsuarioService la invalida cuando cambia
+ * el usuario, su contraseña o su rol.
+ */
+@Component
+@Slf4j
+public class CachePrincipales implements MeterBinder {
+
+    private final CachePrincipalesProperties properties;
+    private final Cache<String, UserPrincipal> cache;
+
+    // Cargas hechas fuera de la caché y generación de invalidaciones (ver obtener)
+    private final AtomicLong cargas = new AtomicLong();
+    private final AtomicLong generacion = new AtomicLong();
+
+    public CachePrincipales(CachePrincipalesProperties properties) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximoEntradas())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+
+        log.info("Caché de principales {} - TTL: {} s, Máximo: {}",
+                properties.isHabilitada() ? "habilitada" : "deshabilitada",
+                properties.getTtl().toSeconds(), properties.getMaximoEntradas());
+    }
+
+    /**
+     * Devuelve el principal en caché o lo carga; los usuarios inexistentes (null) no se guardan.
+     * La carga se hace fuera de cache.get(clave, cargador): ese método consulta la base dentro de
+     * ConcurrentHashMap.compute, que con hilos virtuales fija el hilo portador durante la consulta.
+     * Si hubo una invalidación mientras se cargaba, el resultado se devuelve pero no se guarda.
+     */
+    public UserPrincipal obtener(String nombreUsuario, Function<String, UserPrincipal> cargador) {
+        if (!properties.isHabilitada()) {
+            return cargador.apply(nombreUsuario);
+        }
+
+        UserPrincipal enCache = cache.getIfPresent(nombreUsuario);
+        if (enCache != null) {
+            return enCache;
+        }
+
+        long generacionInicial = generacion.get();
+        UserPrincipal cargado = cargador.apply(nombreUsuario);
+        cargas.incrementAndGet();
+        if (cargado != null && generacion.get() == generacionInicial) {
+            cache.put(nombreUsuario, cargado);
+        }
+        return cargado;
+    }
+
+    /**
+     * Invalida las entradas del usuario ahora y otra vez después del commit,
+     * para descartar lo que se haya cargado mientras la transacción seguía abierta
+     */
+    public void invalidar(UUID usuarioId) {
+        invalidarAhora(usuarioId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidarAhora(usuarioId);
+                }
+            });
+        }
+    }
+
+    public void invalidarTodos() {
+        generacion.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "principales");
+    }
+
+    public EstadisticasCacheDTO obtenerEstadisticas() {
+        CacheStats estadisticas = cache.stats();
+        return EstadisticasCacheDTO.builder()
+                .nombre("principales")
+                .entradas((int) cache.estimatedSize())
+                .aciertos(estadisticas.hitCount())
+                .fallos(estadisticas.missCount())
+                .tasaAciertos(estadisticas.hitRate())
+                .recargas(cargas.get())
+                .build();
+    }
+
+    private void invalidarAhora(UUID usuarioId) {
+        generacion.incrementAndGet();
+        // La clave es el nombre de usuario (puede haber cambiado); la caché es chica, se recorre completa
+        cache.asMap().values().removeIf(principal -> usuarioId.equals(principal.getUsuarioId()));
+    }
+}
@@ -1,26 +1,53 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.security;
 
-import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Usuario;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UsuarioRepository usuarioRepository;
+    private final CachePrincipales cachePrincipales;
 
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String nombreUsuario) throws UsernameNotFoundException {
-        Usuario usuario = usuarioRepository.findByNombreUsuario(nombreUsuario)
+        return cargarPrincipal(nombreUsuario)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + nombreUsuario));
+    }
+
+    /**
+     * Principal del usuario desde la caché o con una única consulta (usuario + nombre del rol).
+     * La consulta es una proyección y no pasa por la caché de segundo nivel: una contraseña cambiada o un
+     * usuario eliminado desde otra instancia se ven, como tarde, al vencer la caché de principales (ttl)
+     */
+    public Optional<UserPrincipal> cargarPrincipal(String nombreUsuario) {
+        return Optional.ofNullable(cachePrincipales.obtener(nombreUsuario, nombre ->
+                usuarioRepository.findCredencialesByNombreUsuario(nombre)
+                        .map(UserPrincipal::create)
+                        .orElse(null)));
+    }
+
+    /**
+     * Guarda el hash recalculado con el costo actual (rehash al iniciar sesión)
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        usuarioRepository.actualizarPasswordHash(principal.getUsuarioId(), newPassword);
+        cachePrincipales.invalidar(principal.getUsuarioId());
+        log.info("Hash de contraseña actualizado al costo configurado - Usuario: {}", principal.getNombreUsuario());
 
-        return UserPrincipal.create(usuario);
+        principal.setPassword(newPassword);
+        return principal;
     }
 }
@@ -0,0 +1,48 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Autentica la petición con el token Bearer, si lo trae. Un token inválido se ignora
+ * y la petición sigue como anónima; la cadena de seguridad decide si eso basta.
+ */
+@RequiredArgsConstructor
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String PREFIJO_BEARER = "Bearer ";
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String cabecera = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (cabecera != null && cabecera.startsWith(PREFIJO_BEARER)) {
+            jwtTokenProvider.validarToken(cabecera.substring(PREFIJO_BEARER.length()).trim())
+                    .ifPresent(principal -> {
+                        UsernamePasswordAuthenticationToken autenticacion = new UsernamePasswordAuthenticationToken(
+                                principal, null, principal.getAuthorities());
+                        autenticacion.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                        SecurityContext contexto = SecurityContextHolder.createEmptyContext();
+                        contexto.setAuthentication(autenticacion);
+                        SecurityContextHolder.setContext(contexto);
+                    });
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,151 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.security;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.config.JwtProperties;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.TokenDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.UsuarioDTO;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Emisión y verificación de tokens JWT (HS256).
+ * El token lleva usuarioId, personaId y rol, así que verificarlo no consulta la base de datos.
+ * Cada token indica en "kid" la clave con que se firmó, para poder rotar claves sin invalidar los vigentes.
+ */
+@Component
+@Slf4j
+public class JwtTokenProvider {
+
+    private static final String CLAIM_USUARIO_ID = "uid";
+    private static final String CLAIM_PERSONA_ID = "pid";
+    private static final String CLAIM_ROL_ID = "rid";
+    private static final String CLAIM_ROL = "rol";
+
+    private final JwtProperties properties;
+    private final String kidFirma;
+    private final SecretKey claveFirma;
+    private final Map<String, SecretKey> clavesVerificacion = new LinkedHashMap<>();
+    private final JwtParser parser;
+
+    public JwtTokenProvider(JwtProperties properties) {
+        this.properties = properties;
+
+        if (properties.getSecreto() == null || properties.getSecreto().isBlank()) {
+            // Con una clave aleatoria cada instancia rechazaría los tokens de las demás y todos caducarían al reiniciar
+            if (properties.isHabilitado() || properties.isRequerido()) {
+                throw new IllegalStateException("ssoma.seguridad.jwt.secreto es obligatorio cuando " +
+                        "ssoma.seguridad.jwt.habilitado o ssoma.seguridad.jwt.requerido es true (SSOMA_JWT_SECRETO)");
+            }
+            log.warn("ssoma.seguridad.jwt.secreto no está configurado: con JWT deshabilitado se usa una clave " +
+                    "aleatoria y los tokens emitidos solo serán válidos en esta instancia");
+            this.claveFirma = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        } else {
+            this.claveFirma = decodificarClave(properties.getSecreto());
+        }
+        this.kidFirma = calcularKid(claveFirma);
+        clavesVerificacion.put(kidFirma, claveFirma);
+
+        for (String secretoAnterior : properties.getSecretosAnteriores()) {
+            SecretKey clave = decodificarClave(secretoAnterior);
+            clavesVerificacion.putIfAbsent(calcularKid(clave), clave);
+        }
+
+        this.parser = Jwts.parserBuilder()
+                .requireIssuer(properties.getEmisor())
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        SecretKey clave = header.getKeyId() != null ? clavesVerificacion.get(header.getKeyId()) : null;
+                        if (clave == null) {
+                            throw new JwtException("Clave de firma desconocida: " + header.getKeyId());
+                        }
+                        return clave;
+                    }
+                })
+                .build();
+
+        log.info("JWT configurado - Emisor: {}, Expiración: {} min, Clave: {}, Claves anteriores: {}",
+                properties.getEmisor(), properties.getExpiracion().toMinutes(), kidFirma, clavesVerificacion.size() - 1);
+    }
+
+    public TokenDTO generarToken(UsuarioDTO usuario) {
+        Date emision = new Date();
+        Date expiracion = new Date(emision.getTime() + properties.getExpiracion().toMillis());
+
+        String token = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, kidFirma)
+                .setIssuer(properties.getEmisor())
+                .setSubject(usuario.getNombreUsuario())
+                .setId(UUID.randomUUID().toString())
+                .claim(CLAIM_USUARIO_ID, usuario.getUsuarioId().toString())
+                .claim(CLAIM_PERSONA_ID, usuario.getPersonaId().toString())
+                .claim(CLAIM_ROL_ID, usuario.getRolId() != null ? usuario.getRolId().toString() : null)
+                .claim(CLAIM_ROL, usuario.getNombreRol())
+                .setIssuedAt(emision)
+                .setExpiration(expiracion)
+                .signWith(claveFirma, SignatureAlgorithm.HS256)
+                .compact();
+
+        return TokenDTO.builder()
+                .token(token)
+                .expiraEnSegundos(properties.getExpiracion().toSeconds())
+                .fechaExpiracion(LocalDateTime.ofInstant(expiracion.toInstant(), ZoneId.systemDefault()))
+                .usuario(usuario)
+                .build();
+    }
+
+    /**
+     * Principal contenido en el token, o vacío si la firma, el emisor o la vigencia no son válidos
+     */
+    public Optional<UserPrincipal> validarToken(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            String rolId = claims.get(CLAIM_ROL_ID, String.class);
+
+            return Optional.of(UserPrincipal.create(
+                    UUID.fromString(claims.get(CLAIM_USUARIO_ID, String.class)),
+                    UUID.fromString(claims.get(CLAIM_PERSONA_ID, String.class)),
+                    claims.getSubject(),
+                    rolId != null ? UUID.fromString(rolId) : null,
+                    claims.get(CLAIM_ROL, String.class)));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token JWT rechazado: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static SecretKey decodificarClave(String secreto) {
+        // Keys.hmacShaKeyFor rechaza claves de menos de 256 bits
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secreto));
+    }
+
+    private static String calcularKid(SecretKey clave) {
+        try {
+            byte[] huella = MessageDigest.getInstance("SHA-256").digest(clave.getEncoded());
+            return Encoders.BASE64URL.encode(huella).substring(0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.security;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.config.HashingPasswordProperties;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasHashingDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.ServicioSaturadoException;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.util.HistogramaLatencia;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt ejecutado en un pool propio y acotado, para que una ráfaga de inicios de sesión
+ * no ocupe todos los hilos de Tomcat. Si la cola está llena o la operación no termina a tiempo
+ * se lanza {@link ServicioSaturadoException} (503 con Retry-After).
+ */
+@Slf4j
+public class PasswordEncoderAcotado implements PasswordEncoder, MeterBinder, DisposableBean {
+
+    private static final Pattern COSTO_BCRYPT = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final HashingPasswordProperties properties;
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor pool;
+
+    private final AtomicLong rechazados = new AtomicLong();
+    private final AtomicLong expirados = new AtomicLong();
+    private final AtomicLong rehashes = new AtomicLong();
+    private final HistogramaLatencia latenciaEspera = new HistogramaLatencia("espera");
+    private final HistogramaLatencia latenciaHash = new HistogramaLatencia("hash");
+    private final HistogramaLatencia latenciaVerificacion = new HistogramaLatencia("verificacion");
+
+    public PasswordEncoderAcotado(HashingPasswordProperties properties) {
+        this.properties = properties;
+        this.bcrypt = new BCryptPasswordEncoder(properties.getCosto());
+
+        AtomicInteger contador = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(properties.getHilos(), properties.getHilos(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getCapacidadCola()),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "bcrypt-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        log.info("Hashing de contraseñas - Costo BCrypt: {}, Hilos: {}, Cola: {}, Espera máxima: {} ms",
+                properties.getCosto(), properties.getHilos(), properties.getCapacidadCola(),
+                properties.getTiempoMaximoEspera().toMillis());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> bcrypt.encode(rawPassword), latenciaHash);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> bcrypt.matches(rawPassword, encodedPassword), latenciaVerificacion);
+    }
+
+    /**
+     * True si el hash se generó con un costo distinto del configurado (más bajo o más alto)
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (!properties.isRehashAlAutenticar() || encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = COSTO_BCRYPT.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != properties.getCosto();
+    }
+
+    public void registrarRehash() {
+        rehashes.incrementAndGet();
+    }
+
+    public EstadisticasHashingDTO obtenerEstadisticas() {
+        return EstadisticasHashingDTO.builder()
+                .costo(properties.getCosto())
+                .hilos(properties.getHilos())
+                .capacidadCola(properties.getCapacidadCola())
+                .enCola(pool.getQueue().size())
+                .activos(pool.getActiveCount())
+                .rechazados(rechazados.get())
+                .expirados(expirados.get())
+                .rehashes(rehashes.get())
+                .latencias(List.of(latenciaEspera.obtenerResumen(), latenciaHash.obtenerResumen(),
+                        latenciaVerificacion.obtenerResumen()))
+                .build();
+    }
+
+    /**
+     * Hashea varias contraseñas en paralelo sobre el mismo pool. Se envían tandas de tantas tareas
+     * como hilos y se espera cada tanda, para dejar lugar en la cola a los inicios de sesión concurrentes.
+     */
+    public List<String> encodeTodas(List<? extends CharSequence> rawPasswords) {
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        int tamanoTanda = properties.getHilos();
+
+        for (int desde = 0; desde < rawPasswords.size(); desde += tamanoTanda) {
+            List<? extends CharSequence> tanda =
+                    rawPasswords.subList(desde, Math.min(desde + tamanoTanda, rawPasswords.size()));
+            List<FutureTask<String>> tareas = new ArrayList<>(tanda.size());
+            try {
+                for (CharSequence rawPassword : tanda) {
+                    tareas.add(enviar(() -> bcrypt.encode(rawPassword), latenciaHash));
+                }
+                for (FutureTask<String> tarea : tareas) {
+                    hashes.add(esperar(tarea));
+                }
+            } catch (RuntimeException e) {
+                tareas.forEach(this::descartar);
+                throw e;
+            }
+        }
+        return hashes;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        String descripcion = "Latencia de BCrypt; 'espera' es el tiempo en cola del pool";
+        latenciaEspera.publicarEn(registry, "ssoma.password.latencia", descripcion);
+        latenciaHash.publicarEn(registry, "ssoma.password.latencia", descripcion);
+        latenciaVerificacion.publicarEn(registry, "ssoma.password.latencia", descripcion);
+
+        FunctionCounter.builder("ssoma.password.rechazos", rechazados, AtomicLong::get)
+                .description("Operaciones rechazadas con 503")
+                .tag("motivo", "cola_llena")
+                .register(registry);
+        FunctionCounter.builder("ssoma.password.rechazos", expirados, AtomicLong::get)
+                .description("Operaciones rechazadas con 503")
+                .tag("motivo", "tiempo_agotado")
+                .register(registry);
+        FunctionCounter.builder("ssoma.password.rehashes", rehashes, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("ssoma.password.pool.en_cola", pool, ejecutor -> ejecutor.getQueue().size())
+                .register(registry);
+        Gauge.builder("ssoma.password.pool.activos", pool, ThreadPoolExecutor::getActiveCount)
+                .register(registry);
+    }
+
+    private <T> T ejecutar(Callable<T> operacion, HistogramaLatencia latencia) {
+        return esperar(enviar(operacion, latencia));
+    }
+
+    private <T> FutureTask<T> enviar(Callable<T> operacion, HistogramaLatencia latencia) {
+        long encolado = System.nanoTime();
+        FutureTask<T> tarea = new FutureTask<>(() -> {
+            long inicio = System.nanoTime();
+            latenciaEspera.registrar(inicio - encolado);
+            try {
+                return operacion.call();
+            } finally {
+                latencia.registrar(System.nanoTime() - inicio);
+            }
+        });
+
+        try {
+            pool.execute(tarea);
+        } catch (RejectedExecutionException e) {
+            long total = rechazados.incrementAndGet();
+            if (total == 1 || total % 100 == 0) {
+                log.warn("Cola de hashing de contraseñas llena, operaciones rechazadas: {}", total);
+            }
+            throw saturado();
+        }
+        return tarea;
+    }
+
+    private <T> T esperar(FutureTask<T> tarea) {
+        try {
+            return tarea.get(properties.getTiempoMaximoEspera().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            descartar(tarea);
+            expirados.incrementAndGet();
+            throw saturado();
+        } catch (InterruptedException e) {
+            descartar(tarea);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing de contraseña interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Error en hashing de contraseña", e.getCause());
+        }
+    }
+
+    private void descartar(FutureTask<?> tarea) {
+        // Si todavía estaba en cola libera su lugar; BCrypt no atiende interrupciones, una en curso termina igual
+        tarea.cancel(false);
+        pool.remove(tarea);
+    }
+
+    private ServicioSaturadoException saturado() {
+        long segundos = Math.max(1, (long) Math.ceil(properties.getTiempoMaximoEspera().toMillis() / 1000.0));
+        return new ServicioSaturadoException(
+                "El servicio de autenticación está saturado, intente nuevamente en unos segundos", segundos);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+}
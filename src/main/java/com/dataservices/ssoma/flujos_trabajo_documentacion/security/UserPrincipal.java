@@ -1,6 +1,7 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.security;
 
 import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Usuario;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.CredencialesUsuario;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
@@ -19,25 +20,49 @@ public class UserPrincipal implements UserDetails {
     private UUID personaId;
     private String nombreUsuario;
     private String password;
+    private UUID rolId;
     private String nombreRol;
     private Collection<? extends GrantedAuthority> authorities;
 
     public static UserPrincipal create(Usuario usuario) {
-        Collection<GrantedAuthority> authorities = Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_" + (usuario.getRol() != null ?
-                        usuario.getRol().getNombreRol() : "USER"))
-        );
-
-        return new UserPrincipal(
+        return create(
                 usuario.getUsuarioId(),
                 usuario.getPersonaId(),
                 usuario.getNombreUsuario(),
                 usuario.getPasswordHash(),
-                usuario.getRol() != null ? usuario.getRol().getNombreRol() : "USER",
-                authorities
+                usuario.getRolId(),
+                usuario.getRol() != null ? usuario.getRol().getNombreRol() : null
         );
     }
 
+    public static UserPrincipal create(CredencialesUsuario credenciales) {
+        return create(
+                credenciales.getUsuarioId(),
+                credenciales.getPersonaId(),
+                credenciales.getNombreUsuario(),
+                credenciales.getPasswordHash(),
+                credenciales.getRolId(),
+                credenciales.getNombreRol()
+        );
+    }
+
+    /**
+     * Principal reconstruido desde un token JWT; no lleva contraseña
+     */
+    public static UserPrincipal create(UUID usuarioId, UUID personaId, String nombreUsuario, UUID rolId, String nombreRol) {
+        return create(usuarioId, personaId, nombreUsuario, null, rolId, nombreRol);
+    }
+
+    private static UserPrincipal create(UUID usuarioId, UUID personaId, String nombreUsuario,
+                                        String passwordHash, UUID rolId, String nombreRol) {
+        String rol = nombreRol != null ? nombreRol : "USER";
+        Collection<GrantedAuthority> authorities = Collections.singletonList(
+                new SimpleGrantedAuthority("ROLE_" + rol)
+        );
+
+        return new UserPrincipal(usuarioId, personaId, nombreUsuario, passwordHash, rolId, rol, authorities);
+    }
+
     @Override
     public String getUsername() {
         return nombreUsuario;
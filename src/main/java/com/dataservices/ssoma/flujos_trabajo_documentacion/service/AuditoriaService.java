@@ -1,9 +1,17 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.service;
 
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.AuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadoColaAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.FiltroAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.FormatoExportacion;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.GranularidadSerie;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ResultadoRetencionDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.CursorPageResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -14,6 +22,11 @@ public interface AuditoriaService {
 
     void registrarAuditoria(UUID usuarioId, String accion, Object detalles);
 
+    /**
+     * Registra el evento en la transacción actual, aunque el usuario se elimine en ella (USUARIO_ELIMINADO)
+     */
+    void registrarAuditoriaEnTransaccion(UUID usuarioId, String accion, String detallesJson);
+
     AuditoriaDTO obtenerAuditoriaPorId(UUID auditoriaId);
 
     List<AuditoriaDTO> obtenerAuditoriasPorUsuario(UUID usuarioId);
@@ -28,5 +41,25 @@ public interface AuditoriaService {
 
     Page<AuditoriaDTO> obtenerTodasLasAuditorias(Pageable pageable);
 
-    void eliminarAuditoriasAnteriores(LocalDateTime fecha);
+    CursorPageResponse<AuditoriaDTO> obtenerAuditoriasPorCursor(String cursor, int size, boolean incluirTotal);
+
+    CursorPageResponse<AuditoriaDTO> obtenerAuditoriasPorUsuarioPorCursor(UUID usuarioId, String cursor, int size,
+                                                                        boolean incluirTotal);
+
+    CursorPageResponse<AuditoriaDTO> buscarAuditorias(FiltroAuditoriaDTO filtro, String cursor, int size);
+
+    EstadisticasAuditoriaDTO obtenerEstadisticasActividad(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                         GranularidadSerie granularidad, String accion, UUID usuarioId,
+                                                         boolean agruparPorUsuario);
+
+    long exportarAuditorias(LocalDateTime fechaInicio, LocalDateTime fechaFin, UUID usuarioId, String accion,
+                            FormatoExportacion formato, OutputStream salida);
+
+    ResultadoRetencionDTO eliminarAuditoriasAnteriores(LocalDateTime fecha);
+
+    ResultadoRetencionDTO ejecutarRetencionAuditorias();
+
+    ResultadoRetencionDTO obtenerUltimaRetencionAuditorias();
+
+    EstadoColaAuditoriaDTO obtenerEstadoColaAuditoria();
 }
@@ -1,8 +1,12 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.service;
 
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasCacheDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ModoTotal;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.RolDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.SliceResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.UUID;
@@ -17,9 +21,17 @@ public interface RolService {
 
     List<RolDTO> obtenerTodosLosRoles();
 
+    // Versión de la lista completa de roles, para su ETag
+    String obtenerVersionRoles();
+
+    // Lista completa leída de la base, sin cachés por instancia: el cuerpo que acompaña a la ETag de obtenerVersionRoles
+    List<RolDTO> obtenerTodosLosRolesDesdeBase();
+
     Page<RolDTO> obtenerTodosLosRoles(Pageable pageable);
 
-    List<RolDTO> buscarRolesPorNombre(String nombre);
+    SliceResponse<RolDTO> obtenerSliceRoles(Pageable pageable, ModoTotal modoTotal);
+
+    Slice<RolDTO> buscarRolesPorNombre(String nombre, Pageable pageable);
 
     List<RolDTO> obtenerRolesConCantidadUsuarios();
 
@@ -30,4 +42,6 @@ public interface RolService {
     boolean existeRolPorNombre(String nombreRol);
 
     boolean puedeEliminarRol(UUID rolId);
+
+    EstadisticasCacheDTO obtenerEstadisticasCatalogo();
 }
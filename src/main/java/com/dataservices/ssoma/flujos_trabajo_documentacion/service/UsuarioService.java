@@ -1,9 +1,18 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.service;
 
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasCacheDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasHashingDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ModoTotal;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ResultadoImportacionDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.SugerenciaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.TokenDTO;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.UsuarioDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.SliceResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,8 +20,20 @@ public interface UsuarioService {
 
     UsuarioDTO crearUsuario(UsuarioDTO usuarioDTO);
 
+    ResultadoImportacionDTO importarUsuarios(List<UsuarioDTO> usuarios);
+
+    ResultadoImportacionDTO importarUsuariosCsv(InputStream csv);
+
     UsuarioDTO obtenerUsuarioPorId(UUID usuarioId);
 
+    // Sin la caché de segundo nivel: el cuerpo que acompaña a la ETag de obtenerVersionUsuario
+    UsuarioDTO obtenerUsuarioPorIdDesdeBase(UUID usuarioId);
+
+    // Versiones para las ETag: se leen sin cargar ni convertir los usuarios
+    String obtenerVersionUsuario(UUID usuarioId);
+
+    String obtenerVersionUsuarios();
+
     UsuarioDTO obtenerUsuarioPorNombreUsuario(String nombreUsuario);
 
     UsuarioDTO obtenerUsuarioPorPersonaId(UUID personaId);
@@ -21,9 +42,13 @@ public interface UsuarioService {
 
     Page<UsuarioDTO> obtenerTodosLosUsuarios(Pageable pageable);
 
+    SliceResponse<UsuarioDTO> obtenerSliceUsuarios(Pageable pageable, ModoTotal modoTotal);
+
     List<UsuarioDTO> obtenerUsuariosPorRol(UUID rolId);
 
-    List<UsuarioDTO> buscarUsuariosPorNombre(String nombre);
+    Slice<UsuarioDTO> buscarUsuariosPorNombre(String nombre, Pageable pageable);
+
+    List<SugerenciaDTO> sugerirUsuarios(String prefijo, int limite);
 
     UsuarioDTO actualizarUsuario(UUID usuarioId, UsuarioDTO usuarioDTO);
 
@@ -40,4 +65,10 @@ public interface UsuarioService {
     boolean validarCredenciales(String nombreUsuario, String password);
 
     UsuarioDTO autenticarUsuario(String nombreUsuario, String password);
+
+    TokenDTO autenticarUsuarioConToken(String nombreUsuario, String password);
+
+    EstadisticasCacheDTO obtenerEstadisticasCachePrincipales();
+
+    EstadisticasHashingDTO obtenerEstadisticasHashing();
 }
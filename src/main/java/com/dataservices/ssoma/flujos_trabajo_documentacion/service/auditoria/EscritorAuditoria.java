@@ -0,0 +1,371 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.config.AuditoriaAsincronaProperties;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadoColaAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.AuditoriaJdbcRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritura de eventos de auditoría.
+ * En modo asíncrono los eventos pasan por una cola acotada y un único hilo de fondo los inserta en lotes;
+ * en modo síncrono (o cuando la cola no los acepta) se insertan en una transacción nueva en el hilo del llamador.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EscritorAuditoria implements SmartLifecycle, MeterBinder {
+
+    private static final long ESPERA_SIN_EVENTOS_MS = 500;
+
+    private final AuditoriaAsincronaProperties properties;
+    private final AuditoriaJdbcRepository auditoriaJdbcRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final AtomicLong encolados = new AtomicLong();
+    private final AtomicLong escritos = new AtomicLong();
+    private final AtomicLong escritosSincronos = new AtomicLong();
+    private final AtomicLong descartadosColaLlena = new AtomicLong();
+    private final AtomicLong descartadosUsuarioInexistente = new AtomicLong();
+    private final AtomicLong lotesEscritos = new AtomicLong();
+    private final AtomicLong lotesFallidos = new AtomicLong();
+    private final AtomicLong perdidosPorError = new AtomicLong();
+    private final AtomicLong erroresPreparacion = new AtomicLong();
+    private final AtomicLong latenciaUltimoLoteMs = new AtomicLong();
+    private final AtomicLong latenciaMaximaLoteMs = new AtomicLong();
+    private final AtomicLong latenciaAcumuladaLotesMs = new AtomicLong();
+
+    private volatile Timer timerLotes;
+    private BlockingQueue<EventoAuditoria> cola;
+    private Thread hiloEscritor;
+    private volatile boolean aceptando = false;
+    private volatile boolean activo = false;
+
+    /**
+     * Registra el evento. En modo asíncrono, si hay una transacción activa el evento se encola
+     * recién después del commit, para que la escritura de fondo vea los datos que audita.
+     */
+    public void registrar(EventoAuditoria evento) {
+        if (!aceptando) {
+            escribirSincrono(evento);
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    encolarOEscribir(evento);
+                }
+            });
+            return;
+        }
+
+        encolarOEscribir(evento);
+    }
+
+    private void encolarOEscribir(EventoAuditoria evento) {
+        if (!encolar(evento)) {
+            escribirSincrono(evento);
+        }
+    }
+
+    /**
+     * @return false si el evento debe escribirse en el hilo del llamador
+     */
+    private boolean encolar(EventoAuditoria evento) {
+        if (!aceptando) {
+            return false;
+        }
+
+        boolean aceptado;
+        switch (properties.getPoliticaDesborde()) {
+            case BLOQUEAR -> {
+                try {
+                    aceptado = cola.offer(evento, properties.getTiempoBloqueoMaximo().toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    aceptado = false;
+                }
+            }
+            case DESCARTAR -> aceptado = cola.offer(evento);
+            default -> {
+                if (!cola.offer(evento)) {
+                    return false;
+                }
+                aceptado = true;
+            }
+        }
+
+        if (aceptado) {
+            encolados.incrementAndGet();
+        } else {
+            long total = descartadosColaLlena.incrementAndGet();
+            if (total == 1 || total % 1000 == 0) {
+                log.warn("Cola de auditoría llena, eventos descartados: {} - Acción: {}", total, evento.getAccion());
+            }
+        }
+        return true;
+    }
+
+    private void escribirSincrono(EventoAuditoria evento) {
+        try {
+            // Transacción propia: la auditoría no debe fallar ni revertir la operación principal
+            TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+            transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            Integer insertados = transaccion.execute(status -> auditoriaJdbcRepository.insertarLote(List.of(evento)));
+
+            if (insertados != null && insertados > 0) {
+                escritosSincronos.incrementAndGet();
+            } else {
+                descartadosUsuarioInexistente.incrementAndGet();
+                log.warn("Intento de crear auditoría para usuario inexistente: {}", evento.getUsuarioId());
+            }
+        } catch (Exception e) {
+            perdidosPorError.incrementAndGet();
+            log.error("Error registrando auditoría - Usuario: {}, Acción: {}, Error: {}",
+                    evento.getUsuarioId(), evento.getAccion(), e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe el evento dentro de la transacción del llamador, sin descartarlo si el usuario ya no existe.
+     * Es para eventos que deben sobrevivir al borrado del usuario en esa misma transacción (USUARIO_ELIMINADO).
+     * Un fallo se revierte hasta un savepoint y no afecta a la operación principal.
+     */
+    public void escribirEnTransaccionActual(EventoAuditoria evento) {
+        try {
+            TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+            transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+            transaccion.executeWithoutResult(status ->
+                    auditoriaJdbcRepository.insertarSinVerificarUsuario(List.of(evento)));
+            escritosSincronos.incrementAndGet();
+        } catch (Exception e) {
+            perdidosPorError.incrementAndGet();
+            log.error("Error registrando auditoría - Usuario: {}, Acción: {}, Error: {}",
+                    evento.getUsuarioId(), evento.getAccion(), e.getMessage());
+        }
+    }
+
+    private void procesar() {
+        List<EventoAuditoria> lote = new ArrayList<>(properties.getTamanoLote());
+
+        while (activo || !cola.isEmpty()) {
+            try {
+                EventoAuditoria primero = cola.poll(ESPERA_SIN_EVENTOS_MS, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                completarLote(lote);
+                escribirLote(lote);
+            } catch (InterruptedException e) {
+                // Solo ocurre si el drenado excede su plazo
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                lotesFallidos.incrementAndGet();
+                perdidosPorError.addAndGet(lote.size());
+                log.error("Error escribiendo lote de auditoría ({} eventos): {}", lote.size(), e.getMessage());
+            } finally {
+                lote.clear();
+            }
+        }
+
+        if (!cola.isEmpty()) {
+            log.warn("Apagado con {} eventos de auditoría sin escribir", cola.size());
+        }
+    }
+
+    private void completarLote(List<EventoAuditoria> lote) throws InterruptedException {
+        int tamanoLote = properties.getTamanoLote();
+        long limite = System.nanoTime() + properties.getEsperaMaximaLote().toNanos();
+
+        while (lote.size() < tamanoLote) {
+            cola.drainTo(lote, tamanoLote - lote.size());
+            if (lote.size() >= tamanoLote) {
+                return;
+            }
+            long restante = limite - System.nanoTime();
+            if (restante <= 0 || !activo) {
+                return;
+            }
+            EventoAuditoria siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+            if (siguiente == null) {
+                return;
+            }
+            lote.add(siguiente);
+        }
+    }
+
+    private void escribirLote(List<EventoAuditoria> lote) {
+        long inicio = System.nanoTime();
+        int insertados;
+        int perdidos = 0;
+        try {
+            insertados = auditoriaJdbcRepository.insertarLote(lote);
+        } catch (Exception e) {
+            // Un solo evento inválido hace fallar todo el INSERT: se reintenta evento por evento
+            // para perder únicamente los que fallen por sí mismos
+            lotesFallidos.incrementAndGet();
+            log.error("Error escribiendo lote de auditoría ({} eventos), se reintenta evento por evento: {}",
+                    lote.size(), e.getMessage());
+            insertados = 0;
+            for (EventoAuditoria evento : lote) {
+                try {
+                    insertados += auditoriaJdbcRepository.insertarLote(List.of(evento));
+                } catch (Exception errorEvento) {
+                    perdidos++;
+                    log.error("Error registrando auditoría - Usuario: {}, Acción: {}, Error: {}",
+                            evento.getUsuarioId(), evento.getAccion(), errorEvento.getMessage());
+                }
+            }
+            perdidosPorError.addAndGet(perdidos);
+        }
+        long latenciaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        escritos.addAndGet(insertados);
+        lotesEscritos.incrementAndGet();
+        latenciaUltimoLoteMs.set(latenciaMs);
+        latenciaAcumuladaLotesMs.addAndGet(latenciaMs);
+        latenciaMaximaLoteMs.accumulateAndGet(latenciaMs, Math::max);
+        if (timerLotes != null) {
+            timerLotes.record(latenciaMs, TimeUnit.MILLISECONDS);
+        }
+
+        int sinUsuario = lote.size() - insertados - perdidos;
+        if (sinUsuario > 0) {
+            descartadosUsuarioInexistente.addAndGet(sinUsuario);
+            log.warn("{} eventos de auditoría descartados por usuario inexistente", sinUsuario);
+        }
+    }
+
+    /**
+     * Eventos que no llegaron a registrarse porque falló su preparación (serialización de detalles, etc.)
+     */
+    public void contarErrorPreparacion() {
+        erroresPreparacion.incrementAndGet();
+    }
+
+    public EstadoColaAuditoriaDTO obtenerEstado() {
+        long lotes = lotesEscritos.get();
+        return EstadoColaAuditoriaDTO.builder()
+                .habilitada(properties.isHabilitada())
+                .activa(aceptando)
+                .politicaDesborde(properties.getPoliticaDesborde().name())
+                .capacidad(properties.getCapacidadCola())
+                .pendientes(cola != null ? cola.size() : 0)
+                .encolados(encolados.get())
+                .escritos(escritos.get())
+                .escritosSincronos(escritosSincronos.get())
+                .descartadosColaLlena(descartadosColaLlena.get())
+                .descartadosUsuarioInexistente(descartadosUsuarioInexistente.get())
+                .perdidosPorError(perdidosPorError.get())
+                .erroresPreparacion(erroresPreparacion.get())
+                .lotesEscritos(lotes)
+                .lotesFallidos(lotesFallidos.get())
+                .latenciaUltimoLoteMs(latenciaUltimoLoteMs.get())
+                .latenciaMaximaLoteMs(latenciaMaximaLoteMs.get())
+                .latenciaPromedioLoteMs(lotes > 0 ? (double) latenciaAcumuladaLotesMs.get() / lotes : 0)
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        contador(registry, "ssoma.auditoria.eventos", encolados, "resultado", "encolado");
+        contador(registry, "ssoma.auditoria.eventos", escritos, "resultado", "escrito");
+        contador(registry, "ssoma.auditoria.eventos", escritosSincronos, "resultado", "escrito_sincrono");
+        contador(registry, "ssoma.auditoria.eventos", descartadosColaLlena, "resultado", "descartado_cola_llena");
+        contador(registry, "ssoma.auditoria.eventos", descartadosUsuarioInexistente, "resultado", "descartado_usuario_inexistente");
+        contador(registry, "ssoma.auditoria.errores", perdidosPorError, "etapa", "escritura");
+        contador(registry, "ssoma.auditoria.errores", erroresPreparacion, "etapa", "preparacion");
+        contador(registry, "ssoma.auditoria.lotes", lotesEscritos, "resultado", "escrito");
+        contador(registry, "ssoma.auditoria.lotes", lotesFallidos, "resultado", "fallido");
+
+        Gauge.builder("ssoma.auditoria.cola.pendientes", this, escritor -> escritor.cola != null ? escritor.cola.size() : 0)
+                .register(registry);
+        timerLotes = Timer.builder("ssoma.auditoria.lotes.latencia")
+                .description("Duración del INSERT de cada lote de auditoría")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static void contador(MeterRegistry registry, String nombre, AtomicLong valor, String etiqueta, String tipo) {
+        FunctionCounter.builder(nombre, valor, AtomicLong::get).tag(etiqueta, tipo).register(registry);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isHabilitada()) {
+            log.info("Auditoría asíncrona deshabilitada, se usará escritura síncrona");
+            return;
+        }
+
+        cola = new ArrayBlockingQueue<>(properties.getCapacidadCola());
+        activo = true;
+        hiloEscritor = new Thread(this::procesar, "auditoria-escritor");
+        hiloEscritor.setDaemon(true);
+        hiloEscritor.start();
+        aceptando = true;
+
+        log.info("Auditoría asíncrona iniciada - Capacidad: {}, Lote: {}, Espera máxima: {} ms, Política: {}",
+                properties.getCapacidadCola(), properties.getTamanoLote(),
+                properties.getEsperaMaximaLote().toMillis(), properties.getPoliticaDesborde());
+    }
+
+    @Override
+    public void stop() {
+        if (hiloEscritor == null) {
+            return;
+        }
+
+        // Desde aquí los eventos nuevos se escriben en el hilo del llamador
+        aceptando = false;
+        activo = false;
+        log.info("Drenando cola de auditoría - Pendientes: {}", cola.size());
+
+        try {
+            hiloEscritor.join(properties.getTiempoDrenado().toMillis());
+            if (hiloEscritor.isAlive()) {
+                hiloEscritor.interrupt();
+                hiloEscritor.join(1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        log.info("Cola de auditoría detenida - Escritos: {}, Descartados: {}, Pendientes: {}",
+                escritos.get(), descartadosColaLlena.get(), cola.size());
+        hiloEscritor = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return hiloEscritor != null;
+    }
+
+    @Override
+    public int getPhase() {
+        // Arranca antes y se detiene después que el servidor web, para drenar lo que dejen las últimas peticiones
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,21 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Evento de auditoría ya normalizado, listo para ser insertado
+ */
+@Value
+@Builder
+public class EventoAuditoria {
+
+    UUID auditoriaId;
+    UUID usuarioId;
+    String accion;
+    LocalDateTime fechaHora;
+    String detallesJson;
+}
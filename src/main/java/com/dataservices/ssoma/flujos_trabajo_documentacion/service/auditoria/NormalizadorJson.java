@@ -0,0 +1,106 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Convierte los detalles de auditoría en un JSON aceptable para la columna jsonb.
+ * El texto que ya es JSON se valida recorriendo sus tokens una sola vez, sin construir árboles;
+ * el que no lo es se envuelve como {"mensaje": "..."}.
+ */
+@Component
+@Slf4j
+public class NormalizadorJson {
+
+    private static final String JSON_NULL = "null";
+    private static final String CAMPO_MENSAJE = "mensaje";
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+
+    public NormalizadorJson(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public String normalizar(Object detalles) throws JsonProcessingException {
+        if (detalles == null) {
+            return JSON_NULL;
+        }
+        if (detalles instanceof String texto) {
+            return normalizar(texto);
+        }
+        return objectMapper.writeValueAsString(detalles);
+    }
+
+    public String normalizar(String texto) {
+        if (texto == null) {
+            return JSON_NULL;
+        }
+        return esJsonValido(texto) ? texto : envolver(texto);
+    }
+
+    /**
+     * True si el texto es exactamente un valor JSON, sin contenido sobrante, que PostgreSQL acepta como jsonb
+     */
+    public boolean esJsonValido(String texto) {
+        // jsonb no admite el carácter nulo dentro de cadenas
+        if (texto.isBlank() || texto.contains("\\u0000")) {
+            return false;
+        }
+        // Texto libre ("Usuario eliminado"): se descarta sin crear el parser ni la excepción
+        if (!puedeIniciarJson(primerCaracterNoBlanco(texto))) {
+            return false;
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(texto)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            // Recorre objetos y arreglos token a token; en un escalar no hace nada
+            parser.skipChildren();
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static char primerCaracterNoBlanco(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c;
+            }
+        }
+        return ' ';
+    }
+
+    private static boolean puedeIniciarJson(char c) {
+        return c == '{' || c == '[' || c == '"' || c == '-' || (c >= '0' && c <= '9')
+                || c == 't' || c == 'f' || c == 'n';
+    }
+
+    public String envolver(String texto) {
+        // Jackson escribiría el carácter nulo como una secuencia de escape que jsonb rechaza, y el INSERT del lote fallaría
+        String mensaje = texto.indexOf('\0') >= 0 ? texto.replace("\0", "") : texto;
+        StringWriter salida = new StringWriter(mensaje.length() + 16);
+        try (JsonGenerator generador = jsonFactory.createGenerator(salida)) {
+            generador.writeStartObject();
+            generador.writeStringField(CAMPO_MENSAJE, mensaje);
+            generador.writeEndObject();
+        } catch (IOException e) {
+            // StringWriter no lanza IOException; se deja por el contrato de JsonGenerator
+            log.error("Error envolviendo detalles de auditoría", e);
+            return JSON_NULL;
+        }
+        return salida.toString();
+    }
+}
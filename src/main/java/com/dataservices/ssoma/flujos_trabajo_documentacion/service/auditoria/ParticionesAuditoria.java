@@ -0,0 +1,90 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.config.ParticionesAuditoriaProperties;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ResultadoRetencionDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.AuditoriaJdbcRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.AuditoriaJdbcRepository.ParticionMensual;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Mantenimiento de las particiones mensuales de AUDITORIA: las crea por adelantado y,
+ * para la retención, elimina las que quedan completas antes del corte.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ParticionesAuditoria {
+
+    private final ParticionesAuditoriaProperties properties;
+    private final AuditoriaJdbcRepository auditoriaJdbcRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (properties.isMantenimientoHabilitado()) {
+            asegurarParticiones();
+        }
+    }
+
+    @Scheduled(cron = "${ssoma.auditoria.particiones.cron:0 0 2 * * *}")
+    public void mantenimientoProgramado() {
+        if (properties.isMantenimientoHabilitado()) {
+            asegurarParticiones();
+        }
+    }
+
+    public void asegurarParticiones() {
+        try {
+            if (!auditoriaJdbcRepository.esTablaParticionada()) {
+                log.warn("La tabla AUDITORIA no está particionada; se omite el mantenimiento de particiones");
+                return;
+            }
+
+            LocalDate mes = LocalDate.now().withDayOfMonth(1);
+            for (int i = 0; i <= properties.getMesesAnticipados(); i++) {
+                String particion = auditoriaJdbcRepository.crearParticionMensual(mes.plusMonths(i));
+                if (particion != null) {
+                    log.debug("Partición de auditoría disponible: {}", particion);
+                } else {
+                    log.debug("El mes {} ya está cubierto por auditoria_historico", mes.plusMonths(i));
+                }
+            }
+
+            if (auditoriaJdbcRepository.particionPorDefectoTieneFilas()) {
+                log.warn("La partición auditoria_default contiene filas: hay fechas sin partición mensual propia");
+            }
+        } catch (Exception e) {
+            log.error("Error en el mantenimiento de particiones de auditoría: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Elimina las particiones mensuales cuyo rango termina antes del corte y acumula el resultado
+     */
+    public void eliminarAnterioresA(LocalDateTime corte, ResultadoRetencionDTO resultado) {
+        if (!auditoriaJdbcRepository.esTablaParticionada()) {
+            return;
+        }
+
+        for (ParticionMensual particion : auditoriaJdbcRepository.listarParticionesMensuales()) {
+            if (particion.getHasta().atStartOfDay().isAfter(corte)) {
+                break;
+            }
+
+            long inicio = System.nanoTime();
+            auditoriaJdbcRepository.eliminarParticion(particion);
+            resultado.setParticionesEliminadas(resultado.getParticionesEliminadas() + 1);
+            resultado.setFilasEstimadasParticiones(resultado.getFilasEstimadasParticiones() + particion.getFilasEstimadas());
+
+            log.info("Partición {} eliminada (~{} filas) en {} ms", particion.getNombre(),
+                    particion.getFilasEstimadas(), (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.config.RetencionAuditoriaProperties;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ResultadoRetencionDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.BusinessException;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.AuditoriaJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Purga de auditorías. Primero elimina las particiones mensuales que quedan enteras antes del corte;
+ * el resto se borra por lotes acotados. Cada DELETE se confirma por separado, por lo que una ejecución
+ * interrumpida no deshace lo avanzado y la siguiente continúa con las filas que todavía cumplen el corte.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RetencionAuditoria {
+
+    private static final String POLITICA_POR_DEFECTO = "*";
+
+    private final RetencionAuditoriaProperties properties;
+    private final AuditoriaJdbcRepository auditoriaJdbcRepository;
+    private final ParticionesAuditoria particionesAuditoria;
+
+    private final AtomicBoolean enEjecucion = new AtomicBoolean(false);
+    private volatile ResultadoRetencionDTO ultimoResultado;
+
+    @Scheduled(cron = "${ssoma.auditoria.retencion.cron:0 30 3 * * *}")
+    public void ejecutarProgramada() {
+        if (!properties.isHabilitada()) {
+            return;
+        }
+        try {
+            ejecutarPoliticas();
+        } catch (BusinessException e) {
+            log.warn("Retención programada omitida: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica la política de cada acción configurada y la política por defecto al resto de acciones
+     */
+    public ResultadoRetencionDTO ejecutarPoliticas() {
+        return ejecutarExclusivo(resultado -> {
+            LocalDateTime ahora = LocalDateTime.now();
+
+            // Lo que ninguna política conserva se elimina por particiones completas
+            if (properties.getDiasPorDefecto() != null) {
+                int diasMaximos = properties.getPoliticas().values().stream()
+                        .reduce(properties.getDiasPorDefecto(), Math::max);
+                particionesAuditoria.eliminarAnterioresA(ahora.minusDays(diasMaximos), resultado);
+            }
+
+            for (Map.Entry<String, Integer> politica : properties.getPoliticas().entrySet()) {
+                if (!eliminarHasta(resultado, politica.getKey(), ahora.minusDays(politica.getValue()),
+                        politica.getKey(), null)) {
+                    return;
+                }
+            }
+
+            if (properties.getDiasPorDefecto() != null) {
+                eliminarHasta(resultado, POLITICA_POR_DEFECTO, ahora.minusDays(properties.getDiasPorDefecto()),
+                        null, properties.getPoliticas().keySet());
+            }
+        });
+    }
+
+    /**
+     * Elimina todas las auditorías anteriores a la fecha indicada, sin distinguir acción
+     */
+    public ResultadoRetencionDTO eliminarAnterioresA(LocalDateTime corte) {
+        return ejecutarExclusivo(resultado -> {
+            particionesAuditoria.eliminarAnterioresA(corte, resultado);
+            eliminarHasta(resultado, POLITICA_POR_DEFECTO, corte, null, null);
+        });
+    }
+
+    public ResultadoRetencionDTO obtenerUltimoResultado() {
+        return ultimoResultado;
+    }
+
+    private ResultadoRetencionDTO ejecutarExclusivo(Consumer<ResultadoRetencionDTO> tarea) {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new BusinessException("Ya hay una purga de auditorías en ejecución", "RETENCION_EN_CURSO");
+        }
+
+        ResultadoRetencionDTO resultado = ResultadoRetencionDTO.builder()
+                .inicio(LocalDateTime.now())
+                .completada(true)
+                .build();
+        long inicio = System.nanoTime();
+
+        try {
+            tarea.accept(resultado);
+        } finally {
+            long duracionMs = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+            resultado.setFin(LocalDateTime.now());
+            resultado.setDuracionMs(duracionMs);
+            resultado.setFilasPorSegundo(resultado.getFilasEliminadas() * 1000.0 / duracionMs);
+            ultimoResultado = resultado;
+            enEjecucion.set(false);
+
+            log.info("Retención de auditorías finalizada - Particiones: {}, Filas: {}, Lotes: {}, Tiempo: {} ms, Filas/s: {}, Completada: {}",
+                    resultado.getParticionesEliminadas(), resultado.getFilasEliminadas(), resultado.getLotes(), duracionMs,
+                    String.format("%.1f", resultado.getFilasPorSegundo()), resultado.isCompletada());
+        }
+
+        return resultado;
+    }
+
+    /**
+     * @return false si la ejecución fue interrumpida
+     */
+    private boolean eliminarHasta(ResultadoRetencionDTO resultado, String politica, LocalDateTime corte,
+                                  String accion, Collection<String> accionesExcluidas) {
+        log.info("Aplicando retención '{}' - Corte: {}", politica, corte);
+
+        int tamanoLote = properties.getTamanoLote();
+        long filasPolitica = 0;
+        long inicio = System.nanoTime();
+        int eliminadas;
+
+        do {
+            eliminadas = auditoriaJdbcRepository.eliminarLoteAnteriorA(corte, accion, accionesExcluidas, tamanoLote);
+            filasPolitica += eliminadas;
+            resultado.setFilasEliminadas(resultado.getFilasEliminadas() + eliminadas);
+            resultado.setLotes(resultado.getLotes() + 1);
+            resultado.getFilasPorPolitica().merge(politica, (long) eliminadas, Long::sum);
+
+            if (eliminadas == tamanoLote && !pausar()) {
+                resultado.setCompletada(false);
+                log.warn("Retención '{}' interrumpida tras eliminar {} filas", politica, filasPolitica);
+                return false;
+            }
+        } while (eliminadas == tamanoLote);
+
+        long duracionMs = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        log.info("Retención '{}' - Filas eliminadas: {}, Filas/s: {}", politica, filasPolitica,
+                String.format("%.1f", filasPolitica * 1000.0 / duracionMs));
+        return true;
+    }
+
+    private boolean pausar() {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        try {
+            Thread.sleep(properties.getPausaEntreLotes().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.cache;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasCacheDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.RolRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.VersionColeccionRepository;
+import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo de roles en memoria, por ID y por nombre.
+ * Los roles casi no cambian: se cargan completos y se recargan cuando RolService los modifica
+ * (después del commit) y periódicamente, para ver los cambios hechos desde otras instancias.
+ * Una consulta por un rol desconocido también puede recargarlo, pero como máximo una vez por intervalo.
+ */
+@Component
+@Slf4j
+public class CatalogoRoles implements MeterBinder {
+
+    private final RolRepository rolRepository;
+    private final VersionColeccionRepository versionColeccionRepository;
+    private final long intervaloRecargaPorFalloNanos;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong recargas = new AtomicLong();
+    // ReentrantLock y no synchronized: la recarga consulta la base y con hilos virtuales
+    // un bloque synchronized fija el hilo portador mientras espera a JDBC
+    private final ReentrantLock bloqueoRecarga = new ReentrantLock();
+
+    private volatile Instantanea instantanea;
+    private volatile long proximaRecargaPorFallo;
+
+    public CatalogoRoles(RolRepository rolRepository,
+                         VersionColeccionRepository versionColeccionRepository,
+                         @Value("${ssoma.roles.catalogo.intervalo-recarga-por-fallo:PT10S}") Duration intervaloRecargaPorFallo) {
+        this.rolRepository = rolRepository;
+        this.versionColeccionRepository = versionColeccionRepository;
+        this.intervaloRecargaPorFalloNanos = intervaloRecargaPorFallo.toNanos();
+        this.proximaRecargaPorFallo = System.nanoTime();
+    }
+
+    public Optional<RolCatalogado> buscarPorId(UUID rolId) {
+        if (rolId == null) {
+            return Optional.empty();
+        }
+        return buscar(catalogo -> catalogo.porId.get(rolId));
+    }
+
+    public Optional<RolCatalogado> buscarPorNombre(String nombreRol) {
+        if (nombreRol == null) {
+            return Optional.empty();
+        }
+        return buscar(catalogo -> catalogo.porNombre.get(nombreRol));
+    }
+
+    public boolean existePorId(UUID rolId) {
+        return buscarPorId(rolId).isPresent();
+    }
+
+    public Optional<String> obtenerNombre(UUID rolId) {
+        return buscarPorId(rolId).map(RolCatalogado::getNombreRol);
+    }
+
+    public List<RolCatalogado> obtenerTodos() {
+        return List.copyOf(obtenerInstantanea().porId.values());
+    }
+
+    /**
+     * Versión de ROLES con la que se cargó el catálogo; forma parte de las ETag de las respuestas
+     * que incluyen nombres de rol tomados de aquí
+     */
+    public long obtenerVersion() {
+        return obtenerInstantanea().version;
+    }
+
+    /**
+     * Nombres de rol de los IDs indicados; los IDs desconocidos no aparecen en el resultado
+     */
+    public Map<UUID, String> obtenerNombres(Collection<UUID> rolIds) {
+        return rolIds.stream()
+                .distinct()
+                .map(this::buscarPorId)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toMap(RolCatalogado::getRolId, RolCatalogado::getNombreRol));
+    }
+
+    /**
+     * Recarga el catálogo. Dentro de una transacción espera al commit, para no leer datos sin confirmar
+     */
+    public void invalidar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recargarSinFallar();
+                }
+            });
+            return;
+        }
+        recargarSinFallar();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        recargarSinFallar();
+        log.info("Catálogo de roles cargado - Roles: {}", instantanea != null ? instantanea.porId.size() : 0);
+    }
+
+    @Scheduled(initialDelayString = "${ssoma.roles.catalogo.intervalo-recarga:PT5M}",
+            fixedDelayString = "${ssoma.roles.catalogo.intervalo-recarga:PT5M}")
+    public void recargarPeriodicamente() {
+        try {
+            // Sin cambios en ROLES desde la última carga no hace falta leer la tabla
+            Instantanea actual = instantanea;
+            if (actual == null || versionColeccionRepository.version(VersionColeccionRepository.ROLES) != actual.version) {
+                recargar();
+            }
+        } catch (Exception e) {
+            log.error("Error recargando catálogo de roles: {}", e.getMessage());
+        }
+    }
+
+    public EstadisticasCacheDTO obtenerEstadisticas() {
+        Instantanea actual = instantanea;
+        long totalAciertos = aciertos.get();
+        long totalFallos = fallos.get();
+        long consultas = totalAciertos + totalFallos;
+        return EstadisticasCacheDTO.builder()
+                .nombre("catalogo-roles")
+                .entradas(actual != null ? actual.porId.size() : 0)
+                .aciertos(totalAciertos)
+                .fallos(totalFallos)
+                .tasaAciertos(consultas > 0 ? (double) totalAciertos / consultas : 0)
+                .recargas(recargas.get())
+                .ultimaRecarga(actual != null ? actual.cargadaEn : null)
+                .build();
+    }
+
+    /**
+     * Mismos nombres que las métricas de Caffeine (cache.gets, cache.size) con cache=catalogo-roles
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", aciertos, AtomicLong::get)
+                .tags("cache", "catalogo-roles", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", fallos, AtomicLong::get)
+                .tags("cache", "catalogo-roles", "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("ssoma.cache.recargas", recargas, AtomicLong::get)
+                .tag("cache", "catalogo-roles")
+                .register(registry);
+        Gauge.builder("cache.size", this, catalogo -> catalogo.instantanea != null ? catalogo.instantanea.porId.size() : 0)
+                .tag("cache", "catalogo-roles")
+                .register(registry);
+    }
+
+    private Optional<RolCatalogado> buscar(Function<Instantanea, RolCatalogado> consulta) {
+        Instantanea vista = obtenerInstantanea();
+        RolCatalogado rol = consulta.apply(vista);
+        if (rol != null) {
+            aciertos.incrementAndGet();
+            return Optional.of(rol);
+        }
+
+        fallos.incrementAndGet();
+        return Optional.ofNullable(consulta.apply(recargarPorFallo(vista)));
+    }
+
+    /**
+     * Puede ser un rol creado en otra instancia, pero también un ID inventado o una importación con miles
+     * de filas que apuntan a un rol inexistente: se recarga como máximo una vez por intervalo y solo si
+     * ROLES cambió. Fuera de eso responde con la instantánea actual y queda la recarga periódica.
+     */
+    private Instantanea recargarPorFallo(Instantanea vista) {
+        if (System.nanoTime() - proximaRecargaPorFallo < 0) {
+            return instantanea;
+        }
+
+        bloqueoRecarga.lock();
+        try {
+            long ahora = System.nanoTime();
+            // Otro hilo recargó o acaba de intentarlo mientras se esperaba el bloqueo
+            if (instantanea != vista || ahora - proximaRecargaPorFallo < 0) {
+                return instantanea;
+            }
+            proximaRecargaPorFallo = ahora + intervaloRecargaPorFalloNanos;
+
+            if (versionColeccionRepository.version(VersionColeccionRepository.ROLES) == vista.version) {
+                return vista;
+            }
+            return recargar();
+        } finally {
+            bloqueoRecarga.unlock();
+        }
+    }
+
+    private Instantanea obtenerInstantanea() {
+        Instantanea actual = instantanea;
+        return actual != null ? actual : recargar();
+    }
+
+    private Instantanea recargar() {
+        bloqueoRecarga.lock();
+        try {
+            // Antes que los roles: si cambian entre ambas lecturas, la próxima recarga trae otra versión
+            long version = versionColeccionRepository.version(VersionColeccionRepository.ROLES);
+            List<RolCatalogado> roles = rolRepository.findAll().stream()
+                    .map(RolCatalogado::de)
+                    .toList();
+
+            Instantanea nueva = new Instantanea(
+                    roles.stream().collect(Collectors.toUnmodifiableMap(RolCatalogado::getRolId, Function.identity())),
+                    roles.stream().collect(Collectors.toUnmodifiableMap(RolCatalogado::getNombreRol, Function.identity(),
+                            (primero, segundo) -> primero)),
+                    version,
+                    LocalDateTime.now());
+            instantanea = nueva;
+            recargas.incrementAndGet();
+
+            log.debug("Catálogo de roles recargado - Roles: {}", roles.size());
+            return nueva;
+        } finally {
+            bloqueoRecarga.unlock();
+        }
+    }
+
+    private void recargarSinFallar() {
+        try {
+            recargar();
+        } catch (Exception e) {
+            // Se mantiene la instantánea anterior; lo reintenta la recarga periódica
+            log.error("Error recargando catálogo de roles: {}", e.getMessage());
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Instantanea {
+
+        private final Map<UUID, RolCatalogado> porId;
+        private final Map<String, RolCatalogado> porNombre;
+        private final long version;
+        private final LocalDateTime cargadaEn;
+    }
+}
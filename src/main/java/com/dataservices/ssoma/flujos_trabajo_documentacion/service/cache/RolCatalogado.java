@@ -0,0 +1,21 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.cache;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Rol;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Copia inmutable de un rol, desacoplada de la sesión de Hibernate
+ */
+@Value
+public class RolCatalogado {
+
+    UUID rolId;
+    String nombreRol;
+    String descripcion;
+
+    static RolCatalogado de(Rol rol) {
+        return new RolCatalogado(rol.getRolId(), rol.getNombreRol(), rol.getDescripcion());
+    }
+}
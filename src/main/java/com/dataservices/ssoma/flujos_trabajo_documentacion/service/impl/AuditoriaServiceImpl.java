@@ -1,142 +1,134 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.service.impl;
 
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.AuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadoColaAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.FiltroAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.FormatoExportacion;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.GranularidadSerie;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.PuntoActividadAuditoriaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ResultadoRetencionDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.CursorPageResponse;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Auditoria;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.ResourceNotFoundException;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.mapper.AuditoriaMapper;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.AuditoriaJdbcRepository;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.AuditoriaRepository;
-import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.UsuarioRepository;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.service.AuditoriaService;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria.EscritorAuditoria;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria.EventoAuditoria;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria.NormalizadorJson;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria.RetencionAuditoria;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.util.CursorAuditoria;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "ssoma.servicio", description = "Duración de los métodos de servicio")
 @RequiredArgsConstructor
 @Slf4j
 public class AuditoriaServiceImpl implements AuditoriaService {
 
+    private static final int TAMANO_MAXIMO_PAGINA_CURSOR = 1000;
+    private static final int FILAS_POR_FLUSH_EXPORTACION = 1000;
+    private static final String ENCABEZADO_CSV = "auditoria_id,usuario_id,accion,fecha_hora,detalles_json";
+
     private final AuditoriaRepository auditoriaRepository;
-    private final UsuarioRepository usuarioRepository;
+    private final AuditoriaJdbcRepository auditoriaJdbcRepository;
+    private final EscritorAuditoria escritorAuditoria;
+    private final NormalizadorJson normalizadorJson;
     private final AuditoriaMapper auditoriaMapper;
     private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final RetencionAuditoria retencionAuditoria;
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void registrarAuditoria(UUID usuarioId, String accion, String detallesJson) {
         try {
-            log.debug("Registrando auditoría - Usuario: {}, Acción: {}", usuarioId, accion);
-
-            // Verificar que el usuario existe antes de crear la auditoría
-            if (!usuarioRepository.existsById(usuarioId)) {
-                log.warn("Intento de crear auditoría para usuario inexistente: {}", usuarioId);
-                return; // Salir silenciosamente si el usuario no existe
-            }
-
             // Asegurar que tenemos JSON válido
-            String jsonValido = prepararJsonValido(detallesJson);
-
-            Auditoria auditoria = Auditoria.builder()
-                    .usuarioId(usuarioId)
-                    .accion(accion)
-                    .fechaHora(LocalDateTime.now())
-                    .detallesJson(jsonValido)
-                    .build();
-
-            auditoriaRepository.save(auditoria);
-
+            encolarAuditoria(usuarioId, accion, normalizadorJson.normalizar(detallesJson));
         } catch (Exception e) {
             // No fallar la operación principal si falla la auditoría
+            escritorAuditoria.contarErrorPreparacion();
             log.error("Error registrando auditoría - Usuario: {}, Acción: {}, Error: {}", usuarioId, accion, e.getMessage());
         }
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void registrarAuditoria(UUID usuarioId, String accion, Object detalles) {
+        String detallesJson;
         try {
-            String detallesJson = convertirAJson(detalles);
-            registrarAuditoria(usuarioId, accion, detallesJson);
-
+            detallesJson = normalizadorJson.normalizar(detalles);
         } catch (Exception e) {
+            escritorAuditoria.contarErrorPreparacion();
             log.error("Error general en auditoría", e);
-            // Como último recurso, crear un JSON simple con el error
-            try {
-                Map<String, String> errorMap = new HashMap<>();
-                errorMap.put("error", "Error en auditoría: " + e.getMessage());
-                String errorJson = objectMapper.writeValueAsString(errorMap);
-                registrarAuditoria(usuarioId, accion, errorJson);
-            } catch (Exception finalE) {
-                log.error("Error crítico en auditoría, no se puede registrar: {}", finalE.getMessage());
-            }
-        }
-    }
-
-    private String prepararJsonValido(String input) {
-        if (input == null) {
-            return "null";
+            // Como último recurso, registrar un JSON simple con el error
+            detallesJson = normalizadorJson.envolver("Error en auditoría: " + e.getMessage());
         }
 
-        // Si ya es JSON válido, devolverlo tal como está
-        if (esJsonValido(input)) {
-            return input;
-        }
-
-        // Si no es JSON, crear un objeto JSON simple
         try {
-            Map<String, String> wrapper = new HashMap<>();
-            wrapper.put("mensaje", input);
-            return objectMapper.writeValueAsString(wrapper);
-        } catch (JsonProcessingException e) {
-            log.error("Error creando JSON wrapper", e);
-            // Como último recurso, crear JSON manualmente
-            return "{\"mensaje\": \"" + input.replace("\"", "\\\"") + "\"}";
+            encolarAuditoria(usuarioId, accion, detallesJson);
+        } catch (Exception e) {
+            escritorAuditoria.contarErrorPreparacion();
+            log.error("Error crítico en auditoría, no se puede registrar: {}", e.getMessage());
         }
     }
 
-    private String convertirAJson(Object objeto) throws JsonProcessingException {
-        if (objeto == null) {
-            return "null";
+    @Override
+    public void registrarAuditoriaEnTransaccion(UUID usuarioId, String accion, String detallesJson) {
+        try {
+            log.debug("Registrando auditoría en la transacción actual - Usuario: {}, Acción: {}", usuarioId, accion);
+            escritorAuditoria.escribirEnTransaccionActual(
+                    crearEvento(usuarioId, accion, normalizadorJson.normalizar(detallesJson)));
+        } catch (Exception e) {
+            escritorAuditoria.contarErrorPreparacion();
+            log.error("Error registrando auditoría - Usuario: {}, Acción: {}, Error: {}", usuarioId, accion, e.getMessage());
         }
+    }
 
-        if (objeto instanceof String) {
-            String str = (String) objeto;
-            // Si ya es JSON válido, devolverlo
-            if (esJsonValido(str)) {
-                return str;
-            }
-            // Si no, crear un wrapper
-            Map<String, String> wrapper = new HashMap<>();
-            wrapper.put("mensaje", str);
-            return objectMapper.writeValueAsString(wrapper);
-        }
+    private void encolarAuditoria(UUID usuarioId, String accion, String detallesJson) {
+        log.debug("Registrando auditoría - Usuario: {}, Acción: {}", usuarioId, accion);
 
-        // Para otros objetos, convertir directamente a JSON
-        return objectMapper.writeValueAsString(objeto);
+        // La existencia del usuario se verifica en el mismo INSERT
+        escritorAuditoria.registrar(crearEvento(usuarioId, accion, detallesJson));
     }
 
-    private boolean esJsonValido(String json) {
-        if (json == null || json.trim().isEmpty()) {
-            return false;
-        }
-        try {
-            objectMapper.readTree(json);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+    private static EventoAuditoria crearEvento(UUID usuarioId, String accion, String detallesJson) {
+        return EventoAuditoria.builder()
+                .auditoriaId(UUID.randomUUID())
+                .usuarioId(usuarioId)
+                .accion(accion)
+                .fechaHora(LocalDateTime.now())
+                .detallesJson(detallesJson)
+                .build();
     }
 
     // Resto de métodos del servicio...
@@ -224,16 +216,300 @@ public class AuditoriaServiceImpl implements AuditoriaService {
     }
 
     @Override
-    @Transactional
-    public void eliminarAuditoriasAnteriores(LocalDateTime fecha) {
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AuditoriaDTO> obtenerAuditoriasPorCursor(String cursor, int size, boolean incluirTotal) {
+        log.info("Obteniendo auditorías por cursor - Tamaño: {}, Primera página: {}", size, cursor == null);
+
+        validarTamanoPagina(size);
+        // Se lee una fila extra para saber si hay página siguiente sin ejecutar COUNT
+        Pageable limite = PageRequest.of(0, size + 1);
+
+        List<Auditoria> auditorias;
+        if (cursor == null || cursor.isBlank()) {
+            auditorias = auditoriaRepository.findPrimeraPagina(limite);
+        } else {
+            CursorAuditoria posicion = CursorAuditoria.decodificar(cursor);
+            auditorias = auditoriaRepository.findPaginaDespuesDe(posicion.getFechaHora(), posicion.getAuditoriaId(), limite);
+        }
+
+        Long total = incluirTotal ? auditoriaRepository.count() : null;
+        return construirPaginaCursor(auditorias, size, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AuditoriaDTO> obtenerAuditoriasPorUsuarioPorCursor(UUID usuarioId, String cursor, int size,
+                                                                               boolean incluirTotal) {
+        log.info("Obteniendo auditorías por cursor para usuario ID: {} - Tamaño: {}, Primera página: {}",
+                usuarioId, size, cursor == null);
+
+        validarTamanoPagina(size);
+        Pageable limite = PageRequest.of(0, size + 1);
+
+        List<Auditoria> auditorias;
+        if (cursor == null || cursor.isBlank()) {
+            auditorias = auditoriaRepository.findPrimeraPaginaPorUsuario(usuarioId, limite);
+        } else {
+            CursorAuditoria posicion = CursorAuditoria.decodificar(cursor);
+            auditorias = auditoriaRepository.findPaginaPorUsuarioDespuesDe(
+                    usuarioId, posicion.getFechaHora(), posicion.getAuditoriaId(), limite);
+        }
+
+        Long total = incluirTotal ? auditoriaRepository.countByUsuarioId(usuarioId) : null;
+        return construirPaginaCursor(auditorias, size, total);
+    }
+
+    private void validarTamanoPagina(int size) {
+        if (size < 1 || size > TAMANO_MAXIMO_PAGINA_CURSOR) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_PAGINA_CURSOR);
+        }
+    }
+
+    private CursorPageResponse<AuditoriaDTO> construirPaginaCursor(List<Auditoria> auditorias, int size, Long total) {
+        List<AuditoriaDTO> auditoriasDTO = auditoriaMapper.toDTOList(auditorias).stream()
+                .map(this::enriquecerAuditoriaDTO)
+                .toList();
+
+        return CursorPageResponse.from(auditoriasDTO, size,
+                dto -> new CursorAuditoria(dto.getFechaHora(), dto.getAuditoriaId()).codificar(), total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AuditoriaDTO> buscarAuditorias(FiltroAuditoriaDTO filtro, String cursor, int size) {
+        log.info("Buscando auditorías - Filtro: {}, Tamaño: {}, Primera página: {}", filtro, size, cursor == null);
+
+        validarTamanoPagina(size);
+        CursorAuditoria posicion = cursor == null || cursor.isBlank() ? null : CursorAuditoria.decodificar(cursor);
+        List<String> contenciones = construirContenciones(filtro);
+
+        // Una fila extra indica si hay página siguiente
+        List<AuditoriaDTO> auditorias = auditoriaJdbcRepository.buscar(filtro, contenciones, posicion, size + 1).stream()
+                .map(this::enriquecerAuditoriaDTO)
+                .toList();
+
+        return CursorPageResponse.from(auditorias, size,
+                dto -> new CursorAuditoria(dto.getFechaHora(), dto.getAuditoriaId()).codificar(), null);
+    }
+
+    /**
+     * Documentos para el operador @>: el de "contiene" y el construido desde "ruta = valor".
+     * Cada uno se resuelve con el índice GIN jsonb_path_ops.
+     */
+    private List<String> construirContenciones(FiltroAuditoriaDTO filtro) {
+        List<String> contenciones = new ArrayList<>(2);
+
+        if (filtro.getContiene() != null && !filtro.getContiene().isBlank()) {
+            if (!normalizadorJson.esJsonValido(filtro.getContiene())) {
+                throw new IllegalArgumentException("El parámetro 'contiene' no es un JSON válido");
+            }
+            JsonNode contiene = leerJson(filtro.getContiene());
+            if (!contiene.isContainerNode()) {
+                throw new IllegalArgumentException("El parámetro 'contiene' debe ser un objeto o arreglo JSON");
+            }
+            contenciones.add(contiene.toString());
+        }
+
+        if (filtro.getRuta() != null && !filtro.getRuta().isBlank()) {
+            if (filtro.getValor() == null) {
+                throw new IllegalArgumentException("El filtro por ruta requiere un valor");
+            }
+            // "cambios.rol" + "ADMIN" -> {"cambios":{"rol":"ADMIN"}}
+            String[] segmentos = filtro.getRuta().split("\\.", -1);
+            ObjectNode documento = objectMapper.createObjectNode();
+            ObjectNode actual = documento;
+            for (int i = 0; i < segmentos.length - 1; i++) {
+                actual = validarSegmento(segmentos[i], actual).putObject(segmentos[i]);
+            }
+            String ultimo = segmentos[segmentos.length - 1];
+            validarSegmento(ultimo, actual).set(ultimo, valorDeRuta(filtro.getValor()));
+            contenciones.add(documento.toString());
+        }
+
+        return contenciones;
+    }
+
+    private static ObjectNode validarSegmento(String segmento, ObjectNode nodo) {
+        if (segmento.isBlank()) {
+            throw new IllegalArgumentException("La ruta contiene un segmento vacío");
+        }
+        return nodo;
+    }
+
+    /**
+     * Números, booleanos, null y cadenas entre comillas se interpretan como literales JSON; el resto como texto
+     */
+    private JsonNode valorDeRuta(String valor) {
+        if (normalizadorJson.esJsonValido(valor)) {
+            JsonNode nodo = leerJson(valor);
+            if (nodo.isValueNode() || nodo.isNull()) {
+                return nodo;
+            }
+        }
+        return objectMapper.getNodeFactory().textNode(valor);
+    }
+
+    private JsonNode leerJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EstadisticasAuditoriaDTO obtenerEstadisticasActividad(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                                GranularidadSerie granularidad, String accion,
+                                                                UUID usuarioId, boolean agruparPorUsuario) {
+        log.info("Obteniendo estadísticas de auditoría por {} entre {} y {} - Acción: {}, Usuario: {}",
+                granularidad, fechaInicio, fechaFin, accion, usuarioId);
+
+        if (fechaFin.isBefore(fechaInicio)) {
+            throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la fecha de inicio");
+        }
+        // El resumen tiene resolución horaria: el rango se amplía a horas completas
+        LocalDateTime desde = fechaInicio.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime hasta = fechaFin.truncatedTo(ChronoUnit.HOURS);
+        if (hasta.isBefore(fechaFin) || hasta.equals(desde)) {
+            hasta = hasta.plusHours(1);
+        }
+        if (granularidad.getRangoMaximo() != null
+                && Duration.between(desde, hasta).compareTo(granularidad.getRangoMaximo()) > 0) {
+            throw new IllegalArgumentException("El rango máximo para la granularidad " + granularidad + " es de "
+                    + granularidad.getRangoMaximo().toDays() + " días");
+        }
+
+        List<PuntoActividadAuditoriaDTO> serie = auditoriaJdbcRepository.resumirActividad(
+                granularidad, desde, hasta, accion, usuarioId, agruparPorUsuario);
+
+        return EstadisticasAuditoriaDTO.builder()
+                .granularidad(granularidad)
+                .fechaInicio(desde)
+                .fechaFin(hasta)
+                .total(serie.stream().mapToLong(PuntoActividadAuditoriaDTO::getCantidad).sum())
+                .serie(serie)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportarAuditorias(LocalDateTime fechaInicio, LocalDateTime fechaFin, UUID usuarioId, String accion,
+                                   FormatoExportacion formato, OutputStream salida) {
+        log.info("Exportando auditorías en {} entre {} y {} - Usuario: {}, Acción: {}",
+                formato, fechaInicio, fechaFin, usuarioId, accion);
+
+        long inicio = System.currentTimeMillis();
+        long filas = 0;
+
+        try (Stream<Auditoria> auditorias = abrirStreamExportacion(fechaInicio, fechaFin, usuarioId, accion);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8))) {
+
+            SequenceWriter ndjson = null;
+            if (formato == FormatoExportacion.NDJSON) {
+                ndjson = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+            } else {
+                writer.write(ENCABEZADO_CSV);
+                writer.write('\n');
+            }
+
+            Iterator<Auditoria> iterador = auditorias.iterator();
+            while (iterador.hasNext()) {
+                Auditoria auditoria = iterador.next();
+                AuditoriaDTO dto = enriquecerAuditoriaDTO(auditoriaMapper.toDTO(auditoria));
+                // Sin detach el contexto de persistencia retendría todas las filas leídas
+                entityManager.detach(auditoria);
+
+                if (ndjson != null) {
+                    ndjson.write(dto);
+                } else {
+                    escribirFilaCsv(writer, dto);
+                }
+
+                if (++filas % FILAS_POR_FLUSH_EXPORTACION == 0) {
+                    writer.flush();
+                }
+            }
+
+            if (ndjson != null) {
+                ndjson.flush();
+                if (filas > 0) {
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error escribiendo la exportación de auditorías", e);
+        }
+
+        log.info("Exportación de auditorías completada - Filas: {}, Tiempo: {} ms", filas, System.currentTimeMillis() - inicio);
+        return filas;
+    }
+
+    private Stream<Auditoria> abrirStreamExportacion(LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                     UUID usuarioId, String accion) {
+        if (usuarioId != null && accion != null) {
+            return auditoriaRepository.streamByUsuarioIdAndAccionAndFechaHoraBetween(usuarioId, accion, fechaInicio, fechaFin);
+        }
+        if (usuarioId != null) {
+            return auditoriaRepository.streamByUsuarioIdAndFechaHoraBetween(usuarioId, fechaInicio, fechaFin);
+        }
+        if (accion != null) {
+            return auditoriaRepository.streamByAccionAndFechaHoraBetween(accion, fechaInicio, fechaFin);
+        }
+        return auditoriaRepository.streamByFechaHoraBetween(fechaInicio, fechaFin);
+    }
+
+    private void escribirFilaCsv(Writer writer, AuditoriaDTO dto) throws IOException {
+        writer.write(String.valueOf(dto.getAuditoriaId()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getUsuarioId()));
+        writer.write(',');
+        writer.write(escaparCsv(dto.getAccion()));
+        writer.write(',');
+        writer.write(String.valueOf(dto.getFechaHora()));
+        writer.write(',');
+        writer.write(escaparCsv(dto.getDetallesJson()));
+        writer.write('\n');
+    }
+
+    private String escaparCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        boolean requiereComillas = valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+                || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+        return requiereComillas ? '"' + valor.replace("\"", "\"\"") + '"' : valor;
+    }
+
+    @Override
+    public ResultadoRetencionDTO eliminarAuditoriasAnteriores(LocalDateTime fecha) {
         log.info("Eliminando auditorías anteriores a: {}", fecha);
 
-        List<Auditoria> auditoriasAnteriores = auditoriaRepository.findByFechaHoraBetween(
-                LocalDateTime.of(2000, 1, 1, 0, 0), fecha);
+        // Sin transacción envolvente: cada lote se confirma por separado
+        ResultadoRetencionDTO resultado = retencionAuditoria.eliminarAnterioresA(fecha);
+
+        log.info("Eliminadas {} auditorías anteriores a {}", resultado.getFilasEliminadas(), fecha);
+        return resultado;
+    }
+
+    @Override
+    public ResultadoRetencionDTO ejecutarRetencionAuditorias() {
+        log.info("Ejecutando políticas de retención de auditorías");
+        return retencionAuditoria.ejecutarPoliticas();
+    }
 
-        auditoriaRepository.deleteAll(auditoriasAnteriores);
+    @Override
+    public ResultadoRetencionDTO obtenerUltimaRetencionAuditorias() {
+        ResultadoRetencionDTO resultado = retencionAuditoria.obtenerUltimoResultado();
+        if (resultado == null) {
+            throw new ResourceNotFoundException("Aún no se ha ejecutado ninguna purga de auditorías");
+        }
+        return resultado;
+    }
 
-        log.info("Eliminadas {} auditorías anteriores a {}", auditoriasAnteriores.size(), fecha);
+    @Override
+    public EstadoColaAuditoriaDTO obtenerEstadoColaAuditoria() {
+        return escritorAuditoria.obtenerEstado();
     }
 
     // Método auxiliar para enriquecer DTOs
@@ -1,26 +1,43 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.service.impl;
 
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasCacheDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ModoTotal;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.RolDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.SliceResponse;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Rol;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.BusinessException;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.DuplicatedResourceException;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.ResourceNotFoundException;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.mapper.RolMapper;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.ConteoUsuariosRolRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.EstimacionFilasRepository;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.RolRepository;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.UsuarioRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.VersionColeccionRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.CachePrincipales;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.service.RolService;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.cache.CatalogoRoles;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.util.PatronBusqueda;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.util.RestriccionesBaseDatos;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
 import java.util.UUID;
 
 @Service
+@Timed(value = "ssoma.servicio", description = "Duración de los métodos de servicio")
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
@@ -29,6 +46,11 @@ public class RolServiceImpl implements RolService {
     private final RolRepository rolRepository;
     private final UsuarioRepository usuarioRepository;
     private final RolMapper rolMapper;
+    private final CatalogoRoles catalogoRoles;
+    private final CachePrincipales cachePrincipales;
+    private final EstimacionFilasRepository estimacionFilasRepository;
+    private final ConteoUsuariosRolRepository conteoUsuariosRolRepository;
+    private final VersionColeccionRepository versionColeccionRepository;
 
     @Override
     public RolDTO crearRol(RolDTO rolDTO) {
@@ -41,6 +63,7 @@ public class RolServiceImpl implements RolService {
 
         Rol rol = rolMapper.toEntity(rolDTO);
         Rol rolGuardado = rolRepository.save(rol);
+        catalogoRoles.invalidar();
 
         log.info("Rol creado exitosamente con ID: {}", rolGuardado.getRolId());
         return rolMapper.toDTO(rolGuardado);
@@ -73,10 +96,22 @@ public class RolServiceImpl implements RolService {
     public List<RolDTO> obtenerTodosLosRoles() {
         log.info("Obteniendo todos los roles");
 
-        List<Rol> roles = rolRepository.findAll();
+        List<Rol> roles = rolRepository.listarTodos();
         return rolMapper.toDTOList(roles);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String obtenerVersionRoles() {
+        return String.valueOf(versionColeccionRepository.version(VersionColeccionRepository.ROLES));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RolDTO> obtenerTodosLosRolesDesdeBase() {
+        return rolMapper.toDTOList(rolRepository.listarTodosDesdeBase());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<RolDTO> obtenerTodosLosRoles(Pageable pageable) {
@@ -89,11 +124,36 @@ public class RolServiceImpl implements RolService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<RolDTO> buscarRolesPorNombre(String nombre) {
-        log.info("Buscando roles con nombre que contenga: {}", nombre);
+    public SliceResponse<RolDTO> obtenerSliceRoles(Pageable pageable, ModoTotal modoTotal) {
+        log.info("Obteniendo roles sin conteo - Página: {}, Tamaño: {}, Total: {}",
+                pageable.getPageNumber(), pageable.getPageSize(), modoTotal);
+
+        Slice<RolDTO> roles = rolRepository.findAllBy(pageable).map(rolMapper::toDTO);
+
+        return switch (modoTotal) {
+            case NINGUNO -> SliceResponse.from(roles);
+            case EXACTO -> SliceResponse.from(roles, rolRepository.count(), false);
+            case APROXIMADO -> {
+                // Sin estadísticas todavía (tabla nunca analizada) se cuenta exacto
+                OptionalLong estimado = estimacionFilasRepository.estimarFilas("roles");
+                yield estimado.isPresent()
+                        ? SliceResponse.from(roles, estimado.getAsLong(), true)
+                        : SliceResponse.from(roles, rolRepository.count(), false);
+            }
+        };
+    }
 
-        List<Rol> roles = rolRepository.findByNombreRolContaining(nombre);
-        return rolMapper.toDTOList(roles);
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<RolDTO> buscarRolesPorNombre(String nombre, Pageable pageable) {
+        log.info("Buscando roles con nombre que contenga: {} - Página: {}, Tamaño: {}",
+                nombre, pageable.getPageNumber(), pageable.getPageSize());
+
+        String texto = PatronBusqueda.normalizarEntrada(nombre);
+        PatronBusqueda.validarCantidad(pageable.getPageSize(), PatronBusqueda.TAMANO_MAXIMO_PAGINA);
+
+        Slice<Rol> roles = rolRepository.buscarPorSubcadena(texto, PatronBusqueda.escaparLike(texto), pageable);
+        return roles.map(rolMapper::toDTO);
     }
 
     @Override
@@ -101,15 +161,13 @@ public class RolServiceImpl implements RolService {
     public List<RolDTO> obtenerRolesConCantidadUsuarios() {
         log.info("Obteniendo roles con cantidad de usuarios");
 
-        List<Object[]> resultados = rolRepository.findRolesConCantidadUsuarios();
+        // Cantidades mantenidas por rol: no depende de cuántos usuarios haya
+        Map<UUID, Long> cantidades = conteoUsuariosRolRepository.cantidadesPorRol();
         List<RolDTO> rolesDTO = new ArrayList<>();
 
-        for (Object[] resultado : resultados) {
-            Rol rol = (Rol) resultado[0];
-            Long cantidadUsuarios = (Long) resultado[1];
-
+        for (Rol rol : rolRepository.listarTodos()) {
             RolDTO rolDTO = rolMapper.toDTO(rol);
-            rolDTO.setCantidadUsuarios(cantidadUsuarios.intValue());
+            rolDTO.setCantidadUsuarios(cantidades.getOrDefault(rol.getRolId(), 0L).intValue());
             rolesDTO.add(rolDTO);
         }
 
@@ -131,6 +189,9 @@ public class RolServiceImpl implements RolService {
 
         rolMapper.updateEntityFromDTO(rolDTO, rolExistente);
         Rol rolActualizado = rolRepository.save(rolExistente);
+        catalogoRoles.invalidar();
+        // Los principales en caché llevan el nombre del rol
+        cachePrincipales.invalidarTodos();
 
         log.info("Rol actualizado exitosamente con ID: {}", rolId);
         return rolMapper.toDTO(rolActualizado);
@@ -149,7 +210,17 @@ public class RolServiceImpl implements RolService {
             throw new BusinessException("No se puede eliminar el rol porque tiene usuarios asociados", "ROLE_HAS_USERS");
         }
 
-        rolRepository.deleteById(rolId);
+        // Si un usuario se asigna al rol después de la verificación, fk_usuarios_rol rechaza el borrado
+        try {
+            rolRepository.deleteById(rolId);
+            rolRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (RestriccionesBaseDatos.violada(e).filter(RestriccionesBaseDatos.USUARIOS_ROL::equals).isPresent()) {
+                throw new BusinessException("No se puede eliminar el rol porque tiene usuarios asociados", "ROLE_HAS_USERS", e);
+            }
+            throw e;
+        }
+        catalogoRoles.invalidar();
         log.info("Rol eliminado exitosamente con ID: {}", rolId);
     }
 
@@ -162,7 +233,13 @@ public class RolServiceImpl implements RolService {
     @Override
     @Transactional(readOnly = true)
     public boolean puedeEliminarRol(UUID rolId) {
-        Long cantidadUsuarios = usuarioRepository.countByRolId(rolId);
-        return cantidadUsuarios == 0;
+        // roles_cantidad_usuarios puede estar desfasada hasta la conciliación: solo sirve para mostrar
+        return !usuarioRepository.existsByRolId(rolId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EstadisticasCacheDTO obtenerEstadisticasCatalogo() {
+        return catalogoRoles.obtenerEstadisticas();
     }
 }
@@ -1,38 +1,74 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.service.impl;
 
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasCacheDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasHashingDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ModoTotal;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ResultadoImportacionDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.SugerenciaDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.TokenDTO;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.UsuarioDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.response.SliceResponse;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Usuario;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.AuthenticationException;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.BusinessException;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.DuplicatedResourceException;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.ResourceNotFoundException;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.mapper.UsuarioMapper;
-import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.RolRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.ConteoUsuariosRolRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.EstimacionFilasRepository;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.UsuarioRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.VersionColeccionRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.CachePrincipales;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.CustomUserDetailsService;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.JwtTokenProvider;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.UserPrincipal;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.service.AuditoriaService;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.service.UsuarioService;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.cache.CatalogoRoles;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.usuarios.ImportadorUsuarios;
 import com.dataservices.ssoma.flujos_trabajo_documentacion.util.PasswordUtil;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.util.PatronBusqueda;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.util.RestriccionesBaseDatos;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ssoma.servicio", description = "Duración de los métodos de servicio")
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class UsuarioServiceImpl implements UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
-    private final RolRepository rolRepository;
+    private final CatalogoRoles catalogoRoles;
     private final UsuarioMapper usuarioMapper;
     private final PasswordUtil passwordUtil;
     private final AuditoriaService auditoriaService;
+    private final CustomUserDetailsService userDetailsService;
+    private final CachePrincipales cachePrincipales;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ImportadorUsuarios importadorUsuarios;
+    private final EstimacionFilasRepository estimacionFilasRepository;
+    private final ConteoUsuariosRolRepository conteoUsuariosRolRepository;
+    private final VersionColeccionRepository versionColeccionRepository;
 
     @Override
     public UsuarioDTO crearUsuario(UsuarioDTO usuarioDTO) {
@@ -41,25 +77,17 @@ public class UsuarioServiceImpl implements UsuarioService {
         // Validaciones
         validarDatosUsuario(usuarioDTO);
 
-        // Verificar que el rol existe
-        if (!rolRepository.existsById(usuarioDTO.getRolId())) {
+        // Verificar que el rol existe (en memoria; la clave foránea cubre un rol eliminado en paralelo)
+        if (!catalogoRoles.existePorId(usuarioDTO.getRolId())) {
             throw new ResourceNotFoundException("Rol no encontrado con ID: " + usuarioDTO.getRolId());
         }
 
-        // Verificar duplicados
-        if (usuarioRepository.existsByNombreUsuario(usuarioDTO.getNombreUsuario())) {
-            throw new DuplicatedResourceException("Ya existe un usuario con el nombre: " + usuarioDTO.getNombreUsuario());
-        }
-
-        if (usuarioRepository.existsByPersonaId(usuarioDTO.getPersonaId())) {
-            throw new DuplicatedResourceException("Ya existe un usuario para la persona ID: " + usuarioDTO.getPersonaId());
-        }
-
-        // Crear usuario
+        // Crear usuario; los duplicados los detectan las restricciones únicas en el mismo INSERT
         Usuario usuario = usuarioMapper.toEntity(usuarioDTO);
         usuario.setPasswordHash(passwordUtil.hashPassword(usuarioDTO.getPassword()));
 
-        Usuario usuarioGuardado = usuarioRepository.save(usuario);
+        Usuario usuarioGuardado = guardar(usuario, usuarioDTO);
+        conteoUsuariosRolRepository.ajustar(usuarioGuardado.getRolId(), 1);
 
         // Registrar auditoría SOLO después de que el usuario esté guardado y confirmado
         try {
@@ -80,6 +108,23 @@ public class UsuarioServiceImpl implements UsuarioService {
         return usuarioMapper.toDTO(usuarioGuardado);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResultadoImportacionDTO importarUsuarios(List<UsuarioDTO> usuarios) {
+        log.info("Importando {} usuarios", usuarios != null ? usuarios.size() : 0);
+
+        // Cada lote se confirma en su propia transacción dentro del importador
+        return importadorUsuarios.importar(usuarios);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResultadoImportacionDTO importarUsuariosCsv(InputStream csv) {
+        log.info("Importando usuarios desde CSV");
+
+        return importadorUsuarios.importarCsv(csv);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UsuarioDTO obtenerUsuarioPorId(UUID usuarioId) {
@@ -91,12 +136,40 @@ public class UsuarioServiceImpl implements UsuarioService {
         return enriquecerUsuarioDTO(usuarioMapper.toDTO(usuario));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public UsuarioDTO obtenerUsuarioPorIdDesdeBase(UUID usuarioId) {
+        Usuario usuario = usuarioRepository.buscarPorIdDesdeBase(usuarioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + usuarioId));
+
+        return enriquecerUsuarioDTO(usuarioMapper.toDTO(usuario));
+    }
+
+    /**
+     * Versión del usuario, leída de la base y no de la región usuarios (por instancia, con TTL), y del catálogo
+     * de roles, del que sale nombreRol
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String obtenerVersionUsuario(UUID usuarioId) {
+        Long version = usuarioRepository.findVersionByUsuarioId(usuarioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + usuarioId));
+
+        return version + "-" + catalogoRoles.obtenerVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String obtenerVersionUsuarios() {
+        return versionColeccionRepository.version(VersionColeccionRepository.USUARIOS) + "-" + catalogoRoles.obtenerVersion();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UsuarioDTO obtenerUsuarioPorNombreUsuario(String nombreUsuario) {
         log.info("Buscando usuario con nombre: {}", nombreUsuario);
 
-        Usuario usuario = usuarioRepository.findByNombreUsuario(nombreUsuario)
+        Usuario usuario = usuarioRepository.buscarPorNombreUsuario(nombreUsuario)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con nombre: " + nombreUsuario));
 
         return enriquecerUsuarioDTO(usuarioMapper.toDTO(usuario));
@@ -119,11 +192,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         log.info("Obteniendo todos los usuarios");
 
         List<Usuario> usuarios = usuarioRepository.findAll();
-        List<UsuarioDTO> usuariosDTO = usuarioMapper.toDTOList(usuarios);
-
-        return usuariosDTO.stream()
-                .map(this::enriquecerUsuarioDTO)
-                .toList();
+        return enriquecerUsuariosDTO(usuarioMapper.toDTOList(usuarios));
     }
 
     @Override
@@ -132,8 +201,31 @@ public class UsuarioServiceImpl implements UsuarioService {
         log.info("Obteniendo usuarios paginados - Página: {}, Tamaño: {}",
                 pageable.getPageNumber(), pageable.getPageSize());
 
-        Page<Usuario> usuarios = usuarioRepository.findAll(pageable);
-        return usuarios.map(usuario -> enriquecerUsuarioDTO(usuarioMapper.toDTO(usuario)));
+        Page<UsuarioDTO> usuarios = usuarioRepository.findAll(pageable).map(usuarioMapper::toDTO);
+        enriquecerUsuariosDTO(usuarios.getContent());
+        return usuarios;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SliceResponse<UsuarioDTO> obtenerSliceUsuarios(Pageable pageable, ModoTotal modoTotal) {
+        log.info("Obteniendo usuarios sin conteo - Página: {}, Tamaño: {}, Total: {}",
+                pageable.getPageNumber(), pageable.getPageSize(), modoTotal);
+
+        Slice<UsuarioDTO> usuarios = usuarioRepository.findAllBy(pageable).map(usuarioMapper::toDTO);
+        enriquecerUsuariosDTO(usuarios.getContent());
+
+        return switch (modoTotal) {
+            case NINGUNO -> SliceResponse.from(usuarios);
+            case EXACTO -> SliceResponse.from(usuarios, usuarioRepository.count(), false);
+            case APROXIMADO -> {
+                // Sin estadísticas todavía (tabla nunca analizada) se cuenta exacto
+                OptionalLong estimado = estimacionFilasRepository.estimarFilas("usuarios");
+                yield estimado.isPresent()
+                        ? SliceResponse.from(usuarios, estimado.getAsLong(), true)
+                        : SliceResponse.from(usuarios, usuarioRepository.count(), false);
+            }
+        };
     }
 
     @Override
@@ -142,23 +234,38 @@ public class UsuarioServiceImpl implements UsuarioService {
         log.info("Obteniendo usuarios por rol ID: {}", rolId);
 
         List<Usuario> usuarios = usuarioRepository.findByRolId(rolId);
-        List<UsuarioDTO> usuariosDTO = usuarioMapper.toDTOList(usuarios);
+        return enriquecerUsuariosDTO(usuarioMapper.toDTOList(usuarios));
+    }
 
-        return usuariosDTO.stream()
-                .map(this::enriquecerUsuarioDTO)
-                .toList();
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UsuarioDTO> buscarUsuariosPorNombre(String nombre, Pageable pageable) {
+        log.info("Buscando usuarios con nombre que contenga: {} - Página: {}, Tamaño: {}",
+                nombre, pageable.getPageNumber(), pageable.getPageSize());
+
+        String texto = PatronBusqueda.normalizarEntrada(nombre);
+        PatronBusqueda.validarCantidad(pageable.getPageSize(), PatronBusqueda.TAMANO_MAXIMO_PAGINA);
+
+        // Con uno o dos caracteres el índice de trigramas no filtra: se busca por prefijo, que sí usa índice
+        String patron = PatronBusqueda.escaparLike(texto);
+        Slice<Usuario> usuarios = PatronBusqueda.admiteSubcadena(texto)
+                ? usuarioRepository.buscarPorSubcadena(texto, patron, pageable)
+                : usuarioRepository.buscarPorPrefijo(patron, pageable);
+
+        return new SliceImpl<>(enriquecerUsuariosDTO(usuarioMapper.toDTOList(usuarios.getContent())),
+                pageable, usuarios.hasNext());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<UsuarioDTO> buscarUsuariosPorNombre(String nombre) {
-        log.info("Buscando usuarios con nombre que contenga: {}", nombre);
+    public List<SugerenciaDTO> sugerirUsuarios(String prefijo, int limite) {
+        log.debug("Sugerencias de usuarios para: {}", prefijo);
 
-        List<Usuario> usuarios = usuarioRepository.findByNombreUsuarioContaining(nombre);
-        List<UsuarioDTO> usuariosDTO = usuarioMapper.toDTOList(usuarios);
+        String texto = PatronBusqueda.normalizarEntrada(prefijo);
+        PatronBusqueda.validarCantidad(limite, PatronBusqueda.LIMITE_MAXIMO_SUGERENCIAS);
 
-        return usuariosDTO.stream()
-                .map(this::enriquecerUsuarioDTO)
+        return usuarioRepository.sugerirPorPrefijo(PatronBusqueda.escaparLike(texto), limite).stream()
+                .map(sugerencia -> new SugerenciaDTO(sugerencia.getId(), sugerencia.getNombre()))
                 .toList();
     }
 
@@ -169,25 +276,19 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuarioExistente = usuarioRepository.findById(usuarioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + usuarioId));
 
-        // Validar cambios únicos
-        if (!usuarioExistente.getNombreUsuario().equals(usuarioDTO.getNombreUsuario()) &&
-                usuarioRepository.existsByNombreUsuario(usuarioDTO.getNombreUsuario())) {
-            throw new DuplicatedResourceException("Ya existe un usuario con el nombre: " + usuarioDTO.getNombreUsuario());
-        }
-
-        if (!usuarioExistente.getPersonaId().equals(usuarioDTO.getPersonaId()) &&
-                usuarioRepository.existsByPersonaId(usuarioDTO.getPersonaId())) {
-            throw new DuplicatedResourceException("Ya existe un usuario para la persona ID: " + usuarioDTO.getPersonaId());
-        }
-
         // Verificar que el rol existe
-        if (!rolRepository.existsById(usuarioDTO.getRolId())) {
+        if (!catalogoRoles.existePorId(usuarioDTO.getRolId())) {
             throw new ResourceNotFoundException("Rol no encontrado con ID: " + usuarioDTO.getRolId());
         }
 
-        // Actualizar
+        // Actualizar; un nombre o persona ya usados los rechazan las restricciones únicas en el mismo UPDATE
+        UUID rolAnterior = usuarioExistente.getRolId();
         usuarioMapper.updateEntityFromDTO(usuarioDTO, usuarioExistente);
-        Usuario usuarioActualizado = usuarioRepository.save(usuarioExistente);
+        Usuario usuarioActualizado = guardar(usuarioExistente, usuarioDTO);
+        if (!rolAnterior.equals(usuarioActualizado.getRolId())) {
+            conteoUsuariosRolRepository.ajustar(Map.of(rolAnterior, -1L, usuarioActualizado.getRolId(), 1L));
+        }
+        cachePrincipales.invalidar(usuarioId);
 
         // Registrar auditoría
         auditoriaService.registrarAuditoria(
@@ -220,6 +321,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         // Actualizar contraseña
         usuario.setPasswordHash(passwordUtil.hashPassword(nuevaPassword));
         usuarioRepository.save(usuario);
+        cachePrincipales.invalidar(usuarioId);
 
         // Registrar auditoría
         auditoriaService.registrarAuditoria(usuarioId, "PASSWORD_CAMBIADA", "Contraseña cambiada por el usuario");
@@ -242,6 +344,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         // Actualizar contraseña
         usuario.setPasswordHash(passwordUtil.hashPassword(nuevaPassword));
         usuarioRepository.save(usuario);
+        cachePrincipales.invalidar(usuarioId);
 
         // Registrar auditoría
         auditoriaService.registrarAuditoria(usuarioId, "PASSWORD_RESETEADA", "Contraseña reseteada por administrador");
@@ -253,14 +356,18 @@ public class UsuarioServiceImpl implements UsuarioService {
     public void eliminarUsuario(UUID usuarioId) {
         log.info("Eliminando usuario con ID: {}", usuarioId);
 
-        if (!usuarioRepository.existsById(usuarioId)) {
-            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + usuarioId);
-        }
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + usuarioId));
 
-        // Registrar auditoría antes de eliminar
-        auditoriaService.registrarAuditoria(usuarioId, "USUARIO_ELIMINADO", "Usuario eliminado");
+        // El DELETE va antes que el ajuste de la cantidad por rol (ver ConteoUsuariosRolRepository)
+        usuarioRepository.delete(usuario);
+        usuarioRepository.flush();
+        conteoUsuariosRolRepository.ajustar(usuario.getRolId(), -1);
 
-        usuarioRepository.deleteById(usuarioId);
+        // Después del DELETE y en esta transacción: el borrado en cascada del historial no lo alcanza
+        // y la cola asíncrona lo descartaría por usuario inexistente
+        auditoriaService.registrarAuditoriaEnTransaccion(usuarioId, "USUARIO_ELIMINADO", "Usuario eliminado");
+        cachePrincipales.invalidar(usuarioId);
         log.info("Usuario eliminado exitosamente con ID: {}", usuarioId);
     }
 
@@ -277,17 +384,17 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean validarCredenciales(String nombreUsuario, String password) {
         try {
-            Usuario usuario = usuarioRepository.findByNombreUsuario(nombreUsuario)
+            UserPrincipal principal = userDetailsService.cargarPrincipal(nombreUsuario)
                     .orElse(null);
 
-            if (usuario == null) {
+            if (principal == null) {
                 return false;
             }
 
-            return passwordUtil.verifyPassword(password, usuario.getPasswordHash());
+            return passwordUtil.verifyPassword(password, principal.getPassword());
         } catch (Exception e) {
             log.error("Error validando credenciales para usuario: {}", nombreUsuario, e);
             return false;
@@ -295,30 +402,87 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // no retener una conexión durante BCrypt
     public UsuarioDTO autenticarUsuario(String nombreUsuario, String password) {
         log.info("Autenticando usuario: {}", nombreUsuario);
 
-        Usuario usuario = usuarioRepository.findByNombreUsuario(nombreUsuario)
+        UserPrincipal principal = userDetailsService.cargarPrincipal(nombreUsuario)
                 .orElseThrow(() -> new AuthenticationException("Credenciales inválidas"));
 
-        // Debug temporal
-        log.info("Password enviada: {}", password);
-        log.info("Hash en BD: {}", usuario.getPasswordHash());
-        boolean isValid = passwordUtil.verifyPassword(password, usuario.getPasswordHash());
-        log.info("Validación resultado: {}", isValid);
-
-        if (!isValid) {
+        if (!passwordUtil.verifyPassword(password, principal.getPassword())) {
             throw new AuthenticationException("Credenciales inválidas");
         }
 
+        if (passwordUtil.necesitaRehash(principal.getPassword())) {
+            actualizarCostoHash(principal, password);
+        }
+
         // Registrar auditoría
-        auditoriaService.registrarAuditoria(usuario.getUsuarioId(), "LOGIN_EXITOSO", "Inicio de sesión exitoso");
+        auditoriaService.registrarAuditoria(principal.getUsuarioId(), "LOGIN_EXITOSO", "Inicio de sesión exitoso");
 
         log.info("Usuario autenticado exitosamente: {}", nombreUsuario);
-        return enriquecerUsuarioDTO(usuarioMapper.toDTO(usuario));
+        return UsuarioDTO.builder()
+                .usuarioId(principal.getUsuarioId())
+                .personaId(principal.getPersonaId())
+                .nombreUsuario(principal.getNombreUsuario())
+                .rolId(principal.getRolId())
+                .nombreRol(principal.getNombreRol())
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TokenDTO autenticarUsuarioConToken(String nombreUsuario, String password) {
+        UsuarioDTO usuario = autenticarUsuario(nombreUsuario, password);
+        return jwtTokenProvider.generarToken(usuario);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EstadisticasCacheDTO obtenerEstadisticasCachePrincipales() {
+        return cachePrincipales.obtenerEstadisticas();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EstadisticasHashingDTO obtenerEstadisticasHashing() {
+        return passwordUtil.obtenerEstadisticas();
     }
 
     // Métodos auxiliares
+    private void actualizarCostoHash(UserPrincipal principal, String password) {
+        try {
+            userDetailsService.updatePassword(principal, passwordUtil.hashPassword(password));
+            passwordUtil.registrarRehash();
+        } catch (Exception e) {
+            // El inicio de sesión ya es válido; se reintentará en el próximo
+            log.warn("No se pudo recalcular el hash de contraseña del usuario {}: {}",
+                    principal.getNombreUsuario(), e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe de inmediato (flush) para traducir aquí las violaciones de restricciones a las excepciones del
+     * servicio; consultar antes si el nombre o la persona existen costaría una sentencia más por cada uno
+     * y no evitaría la carrera entre dos solicitudes simultáneas
+     */
+    private Usuario guardar(Usuario usuario, UsuarioDTO usuarioDTO) {
+        try {
+            return usuarioRepository.saveAndFlush(usuario);
+        } catch (DataIntegrityViolationException e) {
+            String restriccion = RestriccionesBaseDatos.violada(e).orElse("");
+            throw switch (restriccion) {
+                case RestriccionesBaseDatos.USUARIOS_NOMBRE_USUARIO -> new DuplicatedResourceException(
+                        "Ya existe un usuario con el nombre: " + usuarioDTO.getNombreUsuario(), e);
+                case RestriccionesBaseDatos.USUARIOS_PERSONA -> new DuplicatedResourceException(
+                        "Ya existe un usuario para la persona ID: " + usuarioDTO.getPersonaId(), e);
+                case RestriccionesBaseDatos.USUARIOS_ROL -> new ResourceNotFoundException(
+                        "Rol no encontrado con ID: " + usuarioDTO.getRolId(), e);
+                default -> e;
+            };
+        }
+    }
+
     private void validarDatosUsuario(UsuarioDTO usuarioDTO) {
         if (usuarioDTO.getPassword() == null || usuarioDTO.getPassword().length() < 6) {
             throw new BusinessException("La contraseña debe tener al menos 6 caracteres");
@@ -330,8 +494,8 @@ public class UsuarioServiceImpl implements UsuarioService {
         // Por ahora dejamos la implementación básica
 
         // Obtener nombre del rol
-        rolRepository.findById(usuarioDTO.getRolId())
-                .ifPresent(rol -> usuarioDTO.setNombreRol(rol.getNombreRol()));
+        catalogoRoles.obtenerNombre(usuarioDTO.getRolId())
+                .ifPresent(usuarioDTO::setNombreRol);
 
         // TODO: Aquí se podría llamar al servicio de personas para obtener más información
         // personaService.obtenerPersonaPorId(usuarioDTO.getPersonaId())
@@ -342,4 +506,23 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         return usuarioDTO;
     }
+
+    /**
+     * Igual que {@link #enriquecerUsuarioDTO} pero resuelve los roles de toda la lista de una vez
+     */
+    private List<UsuarioDTO> enriquecerUsuariosDTO(List<UsuarioDTO> usuariosDTO) {
+        if (usuariosDTO.isEmpty()) {
+            return usuariosDTO;
+        }
+
+        Set<UUID> rolIds = usuariosDTO.stream()
+                .map(UsuarioDTO::getRolId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<UUID, String> nombresRol = catalogoRoles.obtenerNombres(rolIds);
+
+        usuariosDTO.forEach(usuarioDTO -> usuarioDTO.setNombreRol(nombresRol.get(usuarioDTO.getRolId())));
+        return usuariosDTO;
+    }
 }
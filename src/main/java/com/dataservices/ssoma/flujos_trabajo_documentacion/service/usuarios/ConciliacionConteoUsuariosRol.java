@@ -0,0 +1,42 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.usuarios;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.ConteoUsuariosRolRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recalcula de forma programada la cantidad de usuarios por rol. Una corrección indica que algún proceso
+ * escribió en USUARIOS sin pasar por UsuarioServiceImpl o ImportadorUsuarios.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConciliacionConteoUsuariosRol {
+
+    private final ConteoUsuariosRolRepository conteoUsuariosRolRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Scheduled(cron = "${ssoma.roles.conteo-usuarios.cron:0 15 2 * * *}")
+    public void conciliacionProgramada() {
+        try {
+            conciliar();
+        } catch (Exception e) {
+            log.error("Error conciliando la cantidad de usuarios por rol: {}", e.getMessage());
+        }
+    }
+
+    public int conciliar() {
+        long inicio = System.nanoTime();
+        Integer corregidos = new TransactionTemplate(transactionManager).execute(status -> conteoUsuariosRolRepository.conciliar());
+
+        if (corregidos != null && corregidos > 0) {
+            log.warn("Cantidad de usuarios por rol corregida en {} roles", corregidos);
+        }
+        log.debug("Conciliación de usuarios por rol en {} ms", (System.nanoTime() - inicio) / 1_000_000);
+        return corregidos != null ? corregidos : 0;
+    }
+}
@@ -0,0 +1,405 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.usuarios;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.config.ImportacionUsuariosProperties;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadoFilaImportacion;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.FilaImportacionDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.ResultadoImportacionDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.UsuarioDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Usuario;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.ServicioSaturadoException;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.ConteoUsuariosRolRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.UsuarioJdbcRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.AuditoriaService;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.cache.CatalogoRoles;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.cache.RolCatalogado;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.util.PasswordUtil;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Alta masiva de usuarios. Los duplicados se detectan con una consulta por columna para toda la solicitud,
+ * las contraseñas se hashean en paralelo y cada lote se inserta en un batch JDBC con un solo registro
+ * de auditoría. Un lote que falla no revierte los anteriores; el resultado informa el estado de cada fila.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImportadorUsuarios {
+
+    private static final String ACCION_AUDITORIA = "USUARIOS_IMPORTADOS";
+    private static final List<String> COLUMNAS_CSV = List.of("personaid", "nombreusuario", "password", "rolid", "nombrerol");
+
+    private final ImportacionUsuariosProperties properties;
+    private final UsuarioJdbcRepository usuarioJdbcRepository;
+    private final ConteoUsuariosRolRepository conteoUsuariosRolRepository;
+    private final CatalogoRoles catalogoRoles;
+    private final PasswordUtil passwordUtil;
+    private final AuditoriaService auditoriaService;
+    private final PlatformTransactionManager transactionManager;
+
+    public ResultadoImportacionDTO importar(List<UsuarioDTO> usuarios) {
+        if (usuarios == null || usuarios.isEmpty()) {
+            throw new IllegalArgumentException("La importación no contiene usuarios");
+        }
+        validarCantidadFilas(usuarios.size());
+
+        List<FilaEntrada> filas = new ArrayList<>(usuarios.size());
+        for (UsuarioDTO usuario : usuarios) {
+            filas.add(new FilaEntrada(usuario, null));
+        }
+        return procesar(filas);
+    }
+
+    /**
+     * CSV UTF-8 con cabecera. Columnas: personaId, nombreUsuario, password y rolId o nombreRol, en cualquier orden
+     */
+    public ResultadoImportacionDTO importarCsv(InputStream csv) {
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String cabecera = lector.readLine();
+            if (cabecera == null) {
+                throw new IllegalArgumentException("El archivo CSV está vacío");
+            }
+            Map<String, Integer> columnas = leerCabecera(cabecera);
+
+            List<FilaEntrada> filas = new ArrayList<>();
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                validarCantidadFilas(filas.size() + 1);
+                filas.add(leerFila(linea, columnas));
+            }
+            if (filas.isEmpty()) {
+                throw new IllegalArgumentException("La importación no contiene usuarios");
+            }
+            return procesar(filas);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error leyendo el archivo CSV", e);
+        }
+    }
+
+    private ResultadoImportacionDTO procesar(List<FilaEntrada> entradas) {
+        long inicio = System.nanoTime();
+        FilaImportacionDTO[] resultados = new FilaImportacionDTO[entradas.size()];
+        List<Candidato> candidatos = validar(entradas, resultados);
+        descartarExistentes(candidatos, resultados);
+
+        int tamanoLote = properties.getTamanoLote();
+        for (int desde = 0; desde < candidatos.size(); desde += tamanoLote) {
+            List<Candidato> lote = candidatos.subList(desde, Math.min(desde + tamanoLote, candidatos.size()));
+            try {
+                insertarLote(lote, resultados);
+            } catch (ServicioSaturadoException e) {
+                // Los lotes siguientes fallarían igual: se informan sin intentarlos
+                log.warn("Importación de usuarios interrumpida por saturación del hashing tras {} filas", desde);
+                for (Candidato candidato : candidatos.subList(desde, candidatos.size())) {
+                    resultados[candidato.indice] = resultado(candidato.indice, candidato.usuario.getNombreUsuario(),
+                            EstadoFilaImportacion.ERROR, null, e.getMessage());
+                }
+                break;
+            } catch (RuntimeException e) {
+                // El detalle del driver queda en el log; al cliente solo se le informa el fallo
+                log.error("Error importando lote de {} usuarios: {}", lote.size(), e.getMessage());
+                for (Candidato candidato : lote) {
+                    resultados[candidato.indice] = resultado(candidato.indice, candidato.usuario.getNombreUsuario(),
+                            EstadoFilaImportacion.ERROR, null, "No se pudo crear el usuario");
+                }
+            }
+        }
+
+        List<FilaImportacionDTO> filas = Arrays.asList(resultados);
+        int creados = (int) filas.stream().filter(fila -> fila.getEstado() == EstadoFilaImportacion.CREADO).count();
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        log.info("Importación de usuarios finalizada - Total: {}, Creados: {}, Rechazados: {}, Duración: {} ms",
+                filas.size(), creados, filas.size() - creados, duracionMs);
+
+        return ResultadoImportacionDTO.builder()
+                .total(filas.size())
+                .creados(creados)
+                .rechazados(filas.size() - creados)
+                .duracionMs(duracionMs)
+                .filas(filas)
+                .build();
+    }
+
+    /**
+     * Validaciones que no requieren la base de datos, incluidos los duplicados dentro de la misma solicitud
+     */
+    private List<Candidato> validar(List<FilaEntrada> entradas, FilaImportacionDTO[] resultados) {
+        List<Candidato> candidatos = new ArrayList<>(entradas.size());
+        Set<String> nombres = new HashSet<>();
+        Set<UUID> personas = new HashSet<>();
+
+        for (int i = 0; i < entradas.size(); i++) {
+            FilaEntrada entrada = entradas.get(i);
+            UsuarioDTO usuario = entrada.usuario;
+            String nombreUsuario = usuario != null ? usuario.getNombreUsuario() : null;
+
+            String error = entrada.error != null ? entrada.error : validarDatos(usuario);
+            Optional<RolCatalogado> rol = Optional.empty();
+            if (error == null) {
+                rol = resolverRol(usuario);
+                if (rol.isEmpty()) {
+                    error = usuario.getRolId() != null
+                            ? "Rol no encontrado con ID: " + usuario.getRolId()
+                            : "Rol no encontrado con nombre: " + usuario.getNombreRol();
+                }
+            }
+            if (error != null) {
+                resultados[i] = resultado(i, nombreUsuario, EstadoFilaImportacion.INVALIDO, null, error);
+                continue;
+            }
+
+            if (!nombres.add(nombreUsuario)) {
+                resultados[i] = resultado(i, nombreUsuario, EstadoFilaImportacion.DUPLICADO, null,
+                        "Nombre de usuario repetido en la importación: " + nombreUsuario);
+            } else if (!personas.add(usuario.getPersonaId())) {
+                resultados[i] = resultado(i, nombreUsuario, EstadoFilaImportacion.DUPLICADO, null,
+                        "Persona repetida en la importación: " + usuario.getPersonaId());
+            } else {
+                candidatos.add(new Candidato(i, usuario, rol.get().getRolId()));
+            }
+        }
+        return candidatos;
+    }
+
+    private static String validarDatos(UsuarioDTO usuario) {
+        if (usuario == null) {
+            return "Fila vacía";
+        }
+        if (usuario.getPersonaId() == null) {
+            return "La persona es obligatoria";
+        }
+        String nombreUsuario = usuario.getNombreUsuario();
+        if (nombreUsuario == null || nombreUsuario.isBlank()) {
+            return "El nombre de usuario es obligatorio";
+        }
+        if (nombreUsuario.length() < 3 || nombreUsuario.length() > 100) {
+            return "El nombre de usuario debe tener entre 3 y 100 caracteres";
+        }
+        if (usuario.getPassword() == null || usuario.getPassword().length() < 6) {
+            return "La contraseña debe tener al menos 6 caracteres";
+        }
+        if (usuario.getRolId() == null && (usuario.getNombreRol() == null || usuario.getNombreRol().isBlank())) {
+            return "El rol es obligatorio";
+        }
+        return null;
+    }
+
+    private Optional<RolCatalogado> resolverRol(UsuarioDTO usuario) {
+        return usuario.getRolId() != null
+                ? catalogoRoles.buscarPorId(usuario.getRolId())
+                : catalogoRoles.buscarPorNombre(usuario.getNombreRol());
+    }
+
+    /**
+     * Una consulta por columna para todos los candidatos, en lugar de dos exists por usuario
+     */
+    private void descartarExistentes(List<Candidato> candidatos, FilaImportacionDTO[] resultados) {
+        Set<String> nombresExistentes = usuarioJdbcRepository.buscarNombresExistentes(
+                candidatos.stream().map(candidato -> candidato.usuario.getNombreUsuario()).toList());
+        Set<UUID> personasExistentes = usuarioJdbcRepository.buscarPersonasConUsuario(
+                candidatos.stream().map(candidato -> candidato.usuario.getPersonaId()).toList());
+
+        candidatos.removeIf(candidato -> {
+            String nombreUsuario = candidato.usuario.getNombreUsuario();
+            if (nombresExistentes.contains(nombreUsuario)) {
+                resultados[candidato.indice] = resultado(candidato.indice, nombreUsuario,
+                        EstadoFilaImportacion.DUPLICADO, null, "Ya existe un usuario con el nombre: " + nombreUsuario);
+                return true;
+            }
+            if (personasExistentes.contains(candidato.usuario.getPersonaId())) {
+                resultados[candidato.indice] = resultado(candidato.indice, nombreUsuario,
+                        EstadoFilaImportacion.DUPLICADO, null,
+                        "Ya existe un usuario para la persona ID: " + candidato.usuario.getPersonaId());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void insertarLote(List<Candidato> lote, FilaImportacionDTO[] resultados) {
+        // Fuera de la transacción: el hashing es lo más lento y no debe retener la conexión
+        List<String> hashes = passwordUtil.hashPasswords(lote.stream()
+                .map(candidato -> candidato.usuario.getPassword())
+                .toList());
+
+        List<Usuario> usuarios = new ArrayList<>(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            Candidato candidato = lote.get(i);
+            usuarios.add(Usuario.builder()
+                    .usuarioId(UUID.randomUUID())
+                    .personaId(candidato.usuario.getPersonaId())
+                    .nombreUsuario(candidato.usuario.getNombreUsuario())
+                    .passwordHash(hashes.get(i))
+                    .rolId(candidato.rolId)
+                    .build());
+        }
+
+        Set<UUID> insertados = new TransactionTemplate(transactionManager).execute(status -> {
+            Set<UUID> ids = usuarioJdbcRepository.insertarLote(usuarios);
+            List<Usuario> creados = usuarios.stream()
+                    .filter(usuario -> ids.contains(usuario.getUsuarioId()))
+                    .toList();
+            if (creados.isEmpty()) {
+                return ids;
+            }
+
+            conteoUsuariosRolRepository.ajustar(creados.stream()
+                    .collect(Collectors.groupingBy(Usuario::getRolId, Collectors.counting())));
+
+            // Un registro por lote; se encola después del commit
+            Map<String, Object> detalles = new LinkedHashMap<>();
+            detalles.put("cantidad", creados.size());
+            detalles.put("usuarios", creados.stream().map(Usuario::getNombreUsuario).toList());
+            auditoriaService.registrarAuditoria(creados.get(0).getUsuarioId(), ACCION_AUDITORIA, detalles);
+            return ids;
+        });
+
+        for (int i = 0; i < lote.size(); i++) {
+            Usuario usuario = usuarios.get(i);
+            int indice = lote.get(i).indice;
+            // Creado por otra solicitud entre la verificación previa y el INSERT
+            resultados[indice] = insertados != null && insertados.contains(usuario.getUsuarioId())
+                    ? resultado(indice, usuario.getNombreUsuario(), EstadoFilaImportacion.CREADO, usuario.getUsuarioId(), null)
+                    : resultado(indice, usuario.getNombreUsuario(), EstadoFilaImportacion.DUPLICADO, null,
+                            "Ya existe un usuario con el nombre " + usuario.getNombreUsuario() + " o para la persona ID: "
+                                    + usuario.getPersonaId());
+        }
+    }
+
+    private void validarCantidadFilas(int cantidad) {
+        if (cantidad > properties.getMaximoFilas()) {
+            throw new IllegalArgumentException("La importación admite como máximo " + properties.getMaximoFilas() + " usuarios");
+        }
+    }
+
+    private static Map<String, Integer> leerCabecera(String cabecera) {
+        Map<String, Integer> columnas = new HashMap<>();
+        List<String> nombres = separarCampos(cabecera.replace("\uFEFF", ""));
+        for (int i = 0; i < nombres.size(); i++) {
+            String nombre = nombres.get(i).strip().toLowerCase(Locale.ROOT);
+            if (COLUMNAS_CSV.contains(nombre)) {
+                columnas.put(nombre, i);
+            }
+        }
+        if (!columnas.containsKey("personaid") || !columnas.containsKey("nombreusuario")
+                || !columnas.containsKey("password")
+                || (!columnas.containsKey("rolid") && !columnas.containsKey("nombrerol"))) {
+            throw new IllegalArgumentException(
+                    "La cabecera del CSV debe incluir personaId, nombreUsuario, password y rolId o nombreRol");
+        }
+        return columnas;
+    }
+
+    private static FilaEntrada leerFila(String linea, Map<String, Integer> columnas) {
+        List<String> campos = separarCampos(linea);
+        UsuarioDTO usuario = UsuarioDTO.builder()
+                .nombreUsuario(campo(campos, columnas, "nombreusuario"))
+                .password(campo(campos, columnas, "password"))
+                .nombreRol(campo(campos, columnas, "nombrerol"))
+                .build();
+        try {
+            String personaId = campo(campos, columnas, "personaid");
+            String rolId = campo(campos, columnas, "rolid");
+            usuario.setPersonaId(personaId != null ? UUID.fromString(personaId) : null);
+            usuario.setRolId(rolId != null ? UUID.fromString(rolId) : null);
+            return new FilaEntrada(usuario, null);
+        } catch (IllegalArgumentException e) {
+            return new FilaEntrada(usuario, "Identificador con formato inválido");
+        }
+    }
+
+    private static String campo(List<String> campos, Map<String, Integer> columnas, String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice).strip();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    /**
+     * Separa una línea CSV respetando comillas dobles ("" dentro de un campo entre comillas es una comilla)
+     */
+    private static List<String> separarCampos(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    private static FilaImportacionDTO resultado(int indice, String nombreUsuario, EstadoFilaImportacion estado,
+                                                UUID usuarioId, String mensaje) {
+        return FilaImportacionDTO.builder()
+                .fila(indice + 1)
+                .nombreUsuario(nombreUsuario)
+                .estado(estado)
+                .usuarioId(usuarioId)
+                .mensaje(mensaje)
+                .build();
+    }
+
+    @AllArgsConstructor
+    private static class FilaEntrada {
+
+        private final UsuarioDTO usuario;
+        private final String error;
+    }
+
+    @AllArgsConstructor
+    private static class Candidato {
+
+        private final int indice;
+        private final UsuarioDTO usuario;
+        private final UUID rolId;
+    }
+}
@@ -0,0 +1,37 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.util;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición de lectura sobre el orden (fecha_hora DESC, auditoria_id DESC).
+ * Se serializa como Base64 URL-safe para que el cliente lo trate como un valor opaco.
+ */
+@Value
+public class CursorAuditoria {
+
+    LocalDateTime fechaHora;
+    UUID auditoriaId;
+
+    public String codificar() {
+        String valor = fechaHora + "|" + auditoriaId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorAuditoria decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf('|');
+            return new CursorAuditoria(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    UUID.fromString(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+    }
+}
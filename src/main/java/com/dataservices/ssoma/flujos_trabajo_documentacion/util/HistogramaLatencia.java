@@ -0,0 +1,86 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.util;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.LatenciaOperacionDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias con cubetas fijas, sin bloqueos. Los percentiles se informan
+ * como el límite superior de la cubeta donde caen. Si se publica en un MeterRegistry,
+ * cada registro también se envía a un Timer de Micrometer.
+ */
+public class HistogramaLatencia {
+
+    private static final long[] LIMITES_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final String operacion;
+    private final AtomicLongArray cubetas = new AtomicLongArray(LIMITES_MS.length + 1);
+    private final AtomicLong cantidad = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maximoNanos = new AtomicLong();
+
+    private volatile Timer timer;
+
+    public HistogramaLatencia(String operacion) {
+        this.operacion = operacion;
+    }
+
+    public void registrar(long nanos) {
+        long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int cubeta = 0;
+        while (cubeta < LIMITES_MS.length && ms > LIMITES_MS[cubeta]) {
+            cubeta++;
+        }
+        cubetas.incrementAndGet(cubeta);
+        cantidad.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maximoNanos.accumulateAndGet(nanos, Math::max);
+
+        Timer publicado = timer;
+        if (publicado != null) {
+            publicado.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void publicarEn(MeterRegistry registry, String nombre, String descripcion) {
+        timer = Timer.builder(nombre)
+                .description(descripcion)
+                .tag("operacion", operacion)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public LatenciaOperacionDTO obtenerResumen() {
+        long total = cantidad.get();
+        return LatenciaOperacionDTO.builder()
+                .operacion(operacion)
+                .cantidad(total)
+                .promedioMs(total > 0 ? totalNanos.get() / 1_000_000.0 / total : 0)
+                .maximoMs(maximoNanos.get() / 1_000_000.0)
+                .p50Ms(percentil(0.50))
+                .p95Ms(percentil(0.95))
+                .p99Ms(percentil(0.99))
+                .build();
+    }
+
+    private Long percentil(double fraccion) {
+        long total = cantidad.get();
+        if (total == 0) {
+            return null;
+        }
+        long objetivo = (long) Math.ceil(total * fraccion);
+        long acumulado = 0;
+        for (int i = 0; i < LIMITES_MS.length; i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                return LIMITES_MS[i];
+            }
+        }
+        // Por encima de la última cubeta
+        return Long.MAX_VALUE;
+    }
+}
@@ -1,16 +1,18 @@
 package com.dataservices.ssoma.flujos_trabajo_documentacion.util;
 
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.EstadisticasHashingDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.PasswordEncoderAcotado;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.security.SecureRandom;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class PasswordUtil {
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordEncoderAcotado passwordEncoder;
     private static final SecureRandom secureRandom = new SecureRandom();
 
     /**
@@ -20,6 +22,13 @@ public class PasswordUtil {
         return passwordEncoder.encode(password);
     }
 
+    /**
+     * Genera los hashes de varias contraseñas en paralelo, en el mismo orden
+     */
+    public List<String> hashPasswords(List<String> passwords) {
+        return passwordEncoder.encodeTodas(passwords);
+    }
+
     /**
      * Verifica si una contraseña coincide con su hash
      */
@@ -27,6 +36,21 @@ public class PasswordUtil {
         return passwordEncoder.matches(password, hashedPassword);
     }
 
+    /**
+     * Indica si el hash fue generado con un costo distinto del configurado
+     */
+    public boolean necesitaRehash(String hashedPassword) {
+        return passwordEncoder.upgradeEncoding(hashedPassword);
+    }
+
+    public void registrarRehash() {
+        passwordEncoder.registrarRehash();
+    }
+
+    public EstadisticasHashingDTO obtenerEstadisticas() {
+        return passwordEncoder.obtenerEstadisticas();
+    }
+
     /**
      * Genera una contraseña aleatoria
      */
@@ -0,0 +1,48 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.util;
+
+/**
+ * Preparación del texto de búsqueda para las consultas LIKE sobre normalizar_busqueda (V5__busqueda_trigramas.sql)
+ */
+public final class PatronBusqueda {
+
+    // Con menos caracteres no hay trigramas completos y el índice GIN no descarta filas
+    public static final int LONGITUD_MINIMA_SUBCADENA = 3;
+
+    public static final int TAMANO_MAXIMO_PAGINA = 100;
+    public static final int LIMITE_MAXIMO_SUGERENCIAS = 20;
+
+    private PatronBusqueda() {
+    }
+
+    public static String normalizarEntrada(String texto) {
+        if (texto == null || texto.isBlank()) {
+            throw new IllegalArgumentException("El texto de búsqueda es obligatorio");
+        }
+        return texto.strip();
+    }
+
+    /**
+     * Escapa los comodines de LIKE para que el texto se busque literalmente (escape por defecto: '\')
+     */
+    public static String escaparLike(String texto) {
+        StringBuilder patron = new StringBuilder(texto.length() + 4);
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '\\' || c == '%' || c == '_') {
+                patron.append('\\');
+            }
+            patron.append(c);
+        }
+        return patron.toString();
+    }
+
+    public static void validarCantidad(int cantidad, int maximo) {
+        if (cantidad < 1 || cantidad > maximo) {
+            throw new IllegalArgumentException("La cantidad de resultados debe estar entre 1 y " + maximo);
+        }
+    }
+
+    public static boolean admiteSubcadena(String texto) {
+        return texto.length() >= LONGITUD_MINIMA_SUBCADENA;
+    }
+}
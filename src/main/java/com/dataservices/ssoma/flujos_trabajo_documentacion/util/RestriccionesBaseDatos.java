@@ -0,0 +1,41 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Restricciones de USUARIOS (V1__esquema_inicial.sql, V6__indices_consultas.sql) con las que se validan
+ * las escrituras en la misma sentencia, sin consultar antes si el valor existe.
+ * V12__nombres_restricciones_usuarios.sql garantiza estos nombres también en las bases creadas por Hibernate
+ */
+public final class RestriccionesBaseDatos {
+
+    public static final String USUARIOS_NOMBRE_USUARIO = "uk_usuarios_nombre_usuario";
+    public static final String USUARIOS_PERSONA = "uk_usuarios_persona";
+    public static final String USUARIOS_ROL = "fk_usuarios_rol";
+
+    private static final List<String> CONOCIDAS = List.of(USUARIOS_NOMBRE_USUARIO, USUARIOS_PERSONA, USUARIOS_ROL);
+
+    private RestriccionesBaseDatos() {
+    }
+
+    /**
+     * Nombre de la restricción violada. Hibernate lo extrae del mensaje en inglés de PostgreSQL; si el servidor
+     * responde en otro idioma se busca en el mensaje alguna de las restricciones conocidas
+     */
+    public static Optional<String> violada(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion && violacion.getConstraintName() != null) {
+                return Optional.of(violacion.getConstraintName());
+            }
+            if (causa instanceof SQLException sql && sql.getMessage() != null) {
+                return CONOCIDAS.stream().filter(sql.getMessage()::contains).findFirst();
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,22 @@
+-- El evento USUARIO_ELIMINADO se escribe después de borrar al usuario, en la misma transacción, para que el
+-- borrado en cascada de su historial no lo elimine. Con la clave foránea hacia USUARIOS esa fila no podría
+-- existir, así que se quita: la existencia del usuario la sigue verificando el INSERT de cada lote.
+DO
+$$
+DECLARE
+    restriccion record;
+BEGIN
+    -- Las claves heredadas por las particiones se eliminan junto con la de la tabla padre
+    FOR restriccion IN
+        SELECT c.conrelid::regclass AS tabla, c.conname
+        FROM pg_constraint c
+        WHERE c.contype = 'f'
+          AND c.confrelid = 'usuarios'::regclass
+          AND c.conparentid = 0
+          AND (c.conrelid = 'auditoria'::regclass
+            OR c.conrelid IN (SELECT inhrelid FROM pg_inherits WHERE inhparent = 'auditoria'::regclass))
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', restriccion.tabla, restriccion.conname);
+    END LOOP;
+END;
+$$;
@@ -0,0 +1,44 @@
+-- El trigger por sentencia de V8 actualizaba la fila de versiones_colecciones en cuanto se escribía en la
+-- tabla, y el bloqueo de esa fila duraba hasta el commit: toda escritura en USUARIOS (altas, cambios, lotes de
+-- importación e incluso la actualización del hash al iniciar sesión) quedaba en fila detrás de la anterior.
+--
+-- Ahora:
+-- - Solo cuentan las columnas que muestran los GET con ETag; password_hash no cambia la versión.
+-- - El incremento se difiere al commit (trigger de restricción INITIALLY DEFERRED) y se hace una sola vez
+--   por transacción, así que el bloqueo se toma al confirmar y dura lo que tarda el commit, no la transacción.
+--   Las transacciones que escriben en la misma tabla siguen confirmando de a una, pero ya no se esperan
+--   mientras ejecutan el resto de su trabajo.
+CREATE OR REPLACE FUNCTION incrementar_version_coleccion_al_confirmar() RETURNS trigger AS
+$$
+DECLARE
+    marca text := 'ssoma.version_coleccion_' || TG_ARGV[0];
+BEGIN
+    -- set_config local: la marca desaparece al terminar la transacción
+    IF coalesce(current_setting(marca, true), '') <> '1' THEN
+        PERFORM set_config(marca, '1', true);
+        UPDATE versiones_colecciones SET version = version + 1 WHERE coleccion = TG_ARGV[0];
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tr_usuarios_version_coleccion ON usuarios;
+CREATE CONSTRAINT TRIGGER tr_usuarios_version_coleccion
+    AFTER INSERT OR DELETE OR UPDATE OF nombre_usuario, persona_id, rol_id ON usuarios
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION incrementar_version_coleccion_al_confirmar('usuarios');
+
+DROP TRIGGER IF EXISTS tr_roles_version_coleccion ON roles;
+CREATE CONSTRAINT TRIGGER tr_roles_version_coleccion
+    AFTER INSERT OR DELETE OR UPDATE OF nombre_rol, descripcion ON roles
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE FUNCTION incrementar_version_coleccion_al_confirmar('roles');
+
+-- Los triggers de restricción no admiten TRUNCATE; se mantiene uno por sentencia solo para ese caso
+CREATE TRIGGER tr_usuarios_version_coleccion_truncate
+    AFTER TRUNCATE ON usuarios
+    FOR EACH STATEMENT EXECUTE FUNCTION incrementar_version_coleccion('usuarios');
+
+CREATE TRIGGER tr_roles_version_coleccion_truncate
+    AFTER TRUNCATE ON roles
+    FOR EACH STATEMENT EXECUTE FUNCTION incrementar_version_coleccion('roles');
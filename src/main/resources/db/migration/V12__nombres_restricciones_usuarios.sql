@@ -0,0 +1,78 @@
+-- RestriccionesBaseDatos reconoce las violaciones en USUARIOS por el nombre de la restricción
+-- (uk_usuarios_nombre_usuario, uk_usuarios_persona, fk_usuarios_rol). En las bases marcadas como baseline
+-- en V1, creadas antes por Hibernate, la clave foránea hacia ROLES tiene un nombre generado, y puede haber
+-- restricciones o índices únicos generados sobre nombre_usuario y persona_id además de los índices de V6.
+-- Si PostgreSQL informaba una de esas, la violación no se reconocía y la respuesta era el error genérico.
+-- Se renombra la clave foránea y se eliminan las restricciones únicas duplicadas, que los índices de V6 ya cubren.
+DO
+$$
+DECLARE
+    rol_id_attnum smallint;
+    columna       record;
+    restriccion   record;
+    indice        record;
+BEGIN
+    SELECT attnum INTO rol_id_attnum
+    FROM pg_attribute
+    WHERE attrelid = 'usuarios'::regclass AND attname = 'rol_id';
+
+    FOR restriccion IN
+        SELECT conname
+        FROM pg_constraint
+        WHERE conrelid = 'usuarios'::regclass
+          AND contype = 'f'
+          AND confrelid = 'roles'::regclass
+          AND conkey = ARRAY[rol_id_attnum]
+          AND conname <> 'fk_usuarios_rol'
+    LOOP
+        IF EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'usuarios'::regclass AND conname = 'fk_usuarios_rol') THEN
+            EXECUTE format('ALTER TABLE usuarios DROP CONSTRAINT %I', restriccion.conname);
+        ELSE
+            EXECUTE format('ALTER TABLE usuarios RENAME CONSTRAINT %I TO fk_usuarios_rol', restriccion.conname);
+        END IF;
+    END LOOP;
+
+    -- Sin ninguna clave foránea, eliminar un rol con usuarios no encontraría nada que lo impida
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'usuarios'::regclass AND conname = 'fk_usuarios_rol') THEN
+        ALTER TABLE usuarios ADD CONSTRAINT fk_usuarios_rol FOREIGN KEY (rol_id) REFERENCES roles (rol_id);
+    END IF;
+
+    FOR columna IN
+        SELECT a.attnum, v.indice_esperado
+        FROM (VALUES ('nombre_usuario', 'uk_usuarios_nombre_usuario'),
+                     ('persona_id', 'uk_usuarios_persona')) AS v(columna, indice_esperado)
+        JOIN pg_attribute a ON a.attrelid = 'usuarios'::regclass AND a.attname = v.columna
+    LOOP
+        -- Solo se quitan las demás si la de V6 existe y sigue garantizando la unicidad
+        CONTINUE WHEN to_regclass(columna.indice_esperado) IS NULL;
+
+        FOR restriccion IN
+            SELECT conname
+            FROM pg_constraint
+            WHERE conrelid = 'usuarios'::regclass
+              AND contype = 'u'
+              AND conkey = ARRAY[columna.attnum]
+              AND conname <> columna.indice_esperado
+        LOOP
+            EXECUTE format('ALTER TABLE usuarios DROP CONSTRAINT %I', restriccion.conname);
+        END LOOP;
+
+        -- Índices únicos sueltos (sin restricción) sobre la misma columna
+        FOR indice IN
+            SELECT i.indexrelid::regclass AS nombre
+            FROM pg_index i
+            WHERE i.indrelid = 'usuarios'::regclass
+              AND i.indisunique
+              AND NOT i.indisprimary
+              AND i.indnatts = 1
+              AND i.indkey[0] = columna.attnum
+              AND i.indpred IS NULL
+              AND i.indexprs IS NULL
+              AND i.indexrelid::regclass::text <> columna.indice_esperado
+              AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = i.indexrelid)
+        LOOP
+            EXECUTE format('DROP INDEX %s', indice.nombre);
+        END LOOP;
+    END LOOP;
+END;
+$$;
@@ -0,0 +1,29 @@
+-- Esquema inicial del módulo (ROLES, USUARIOS, AUDITORIA) tal como lo mapean las entidades JPA.
+-- En bases existentes esta versión se marca como baseline (spring.flyway.baseline-version=1) y no se ejecuta.
+
+CREATE TABLE IF NOT EXISTS roles (
+    rol_id      uuid         NOT NULL,
+    nombre_rol  varchar(100) NOT NULL,
+    descripcion text,
+    CONSTRAINT roles_pkey PRIMARY KEY (rol_id)
+);
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    usuario_id     uuid         NOT NULL,
+    persona_id     uuid         NOT NULL,
+    nombre_usuario varchar(100) NOT NULL,
+    password_hash  varchar(255) NOT NULL,
+    rol_id         uuid         NOT NULL,
+    CONSTRAINT usuarios_pkey PRIMARY KEY (usuario_id),
+    CONSTRAINT fk_usuarios_rol FOREIGN KEY (rol_id) REFERENCES roles (rol_id)
+);
+
+CREATE TABLE IF NOT EXISTS auditoria (
+    auditoria_id  uuid         NOT NULL,
+    usuario_id    uuid         NOT NULL,
+    accion        varchar(255) NOT NULL,
+    fecha_hora    timestamp(6) NOT NULL,
+    detalles_json jsonb,
+    CONSTRAINT auditoria_pkey PRIMARY KEY (auditoria_id),
+    CONSTRAINT fk_auditoria_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (usuario_id)
+);
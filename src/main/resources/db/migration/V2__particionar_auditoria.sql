@@ -0,0 +1,73 @@
+-- Convierte AUDITORIA en una tabla particionada por rango mensual de fecha_hora.
+--
+-- La tabla existente no se copia: se renombra a auditoria_historico y se adjunta como partición
+-- FROM (MINVALUE) TO (inicio del mes siguiente al último registro). Al adjuntarla PostgreSQL valida
+-- el rango y crea el índice de la nueva clave primaria, por lo que en tablas grandes conviene ejecutar
+-- esta migración en una ventana de mantenimiento. A partir de ahí cada mes tiene su propia partición
+-- y la retención puede eliminar particiones completas en lugar de filas.
+
+-- Crea (si no existe) la partición mensual que contiene la fecha indicada
+CREATE OR REPLACE FUNCTION crear_particion_auditoria(mes date) RETURNS text
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    desde  date := date_trunc('month', mes)::date;
+    hasta  date := (date_trunc('month', mes) + interval '1 month')::date;
+    nombre text := 'auditoria_p' || to_char(desde, 'YYYY_MM');
+BEGIN
+    IF to_regclass(nombre) IS NULL THEN
+        BEGIN
+            EXECUTE format('CREATE TABLE %I PARTITION OF auditoria FOR VALUES FROM (%L) TO (%L)', nombre, desde, hasta);
+        EXCEPTION WHEN invalid_object_definition THEN
+            -- El mes ya está dentro del rango de otra partición (auditoria_historico)
+            RETURN NULL;
+        END;
+    END IF;
+    RETURN nombre;
+END;
+$$;
+
+DO
+$$
+DECLARE
+    nombre_pk text;
+    limite    date;
+BEGIN
+    -- El nombre de la clave primaria puede variar en bases creadas fuera de la aplicación
+    SELECT conname INTO nombre_pk
+    FROM pg_constraint
+    WHERE conrelid = 'auditoria'::regclass AND contype = 'p';
+
+    ALTER TABLE auditoria RENAME TO auditoria_historico;
+    -- ATTACH PARTITION le crea la clave primaria de la tabla particionada (con fecha_hora);
+    -- una partición no puede tener dos claves primarias
+    IF nombre_pk IS NOT NULL THEN
+        EXECUTE format('ALTER TABLE auditoria_historico DROP CONSTRAINT %I', nombre_pk);
+    END IF;
+
+    -- En una tabla particionada la clave primaria debe incluir la columna de partición
+    CREATE TABLE auditoria (
+        auditoria_id  uuid         NOT NULL,
+        usuario_id    uuid         NOT NULL,
+        accion        varchar(255) NOT NULL,
+        fecha_hora    timestamp(6) NOT NULL,
+        detalles_json jsonb,
+        CONSTRAINT auditoria_pkey PRIMARY KEY (auditoria_id, fecha_hora),
+        CONSTRAINT fk_auditoria_particionada_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (usuario_id)
+    ) PARTITION BY RANGE (fecha_hora);
+
+    SELECT (date_trunc('month', coalesce(max(fecha_hora), now())) + interval '1 month')::date
+    INTO limite
+    FROM auditoria_historico;
+
+    EXECUTE format('ALTER TABLE auditoria ATTACH PARTITION auditoria_historico FOR VALUES FROM (MINVALUE) TO (%L)', limite);
+
+    -- Particiones del mes siguiente al histórico y dos más; el resto lo crea el mantenimiento de la aplicación
+    PERFORM crear_particion_auditoria(limite);
+    PERFORM crear_particion_auditoria((limite + interval '1 month')::date);
+    PERFORM crear_particion_auditoria((limite + interval '2 month')::date);
+END;
+$$;
+
+-- Red de seguridad para filas fuera de las particiones creadas; el mantenimiento avisa si recibe datos
+CREATE TABLE auditoria_default PARTITION OF auditoria DEFAULT;
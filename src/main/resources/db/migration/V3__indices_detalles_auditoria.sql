@@ -0,0 +1,11 @@
+-- Índices GIN sobre AUDITORIA.detalles_json para la búsqueda por contenido (/api/v1/auditorias/buscar).
+-- Al crearse sobre la tabla particionada, PostgreSQL los crea en cada partición existente y futura.
+
+-- Contención (@>): cubre los filtros "contiene" y "ruta = valor". jsonb_path_ops es más compacto
+-- y rápido que el operador por defecto, pero no sirve para existencia de claves
+CREATE INDEX IF NOT EXISTS idx_auditoria_detalles_contencion
+    ON auditoria USING gin (detalles_json jsonb_path_ops);
+
+-- Existencia de claves (?, ?&)
+CREATE INDEX IF NOT EXISTS idx_auditoria_detalles_claves
+    ON auditoria USING gin (detalles_json);
@@ -0,0 +1,26 @@
+-- Contadores por hora, acción y usuario para las estadísticas de actividad (/api/v1/auditorias/estadisticas).
+-- Se actualizan en la misma sentencia que inserta los eventos (AuditoriaJdbcRepository.insertarLote),
+-- por lo que nunca quedan desfasados respecto de AUDITORIA. La retención no los descuenta: conservan
+-- el histórico aunque los eventos originales se eliminen.
+CREATE TABLE IF NOT EXISTS auditoria_resumen_horario (
+    hora       timestamp(0) NOT NULL,
+    accion     varchar(255) NOT NULL,
+    usuario_id uuid         NOT NULL,
+    cantidad   bigint       NOT NULL,
+    CONSTRAINT auditoria_resumen_horario_pkey PRIMARY KEY (hora, accion, usuario_id)
+);
+
+-- Series por acción sin filtrar por usuario
+CREATE INDEX IF NOT EXISTS idx_auditoria_resumen_accion_hora
+    ON auditoria_resumen_horario (accion, hora);
+
+-- Series de un usuario
+CREATE INDEX IF NOT EXISTS idx_auditoria_resumen_usuario_hora
+    ON auditoria_resumen_horario (usuario_id, hora);
+
+-- Carga inicial con los eventos existentes
+INSERT INTO auditoria_resumen_horario (hora, accion, usuario_id, cantidad)
+SELECT date_trunc('hour', fecha_hora), accion, usuario_id, count(*)
+FROM auditoria
+GROUP BY 1, 2, 3
+ON CONFLICT (hora, accion, usuario_id) DO NOTHING;
@@ -0,0 +1,24 @@
+-- Búsqueda por subcadena sin distinguir mayúsculas ni acentos sobre USUARIOS.nombre_usuario y ROLES.nombre_rol.
+-- Requiere las extensiones pg_trgm y unaccent (incluidas en contrib); el usuario de Flyway necesita
+-- permiso para crearlas o deben crearse antes por un administrador.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent(text) es STABLE y no puede usarse en índices; con el diccionario explícito y el esquema
+-- calificado el resultado no depende de search_path y la función puede declararse IMMUTABLE
+CREATE OR REPLACE FUNCTION normalizar_busqueda(texto text) RETURNS text
+    LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE AS
+$$
+SELECT lower(public.unaccent('public.unaccent'::regdictionary, texto))
+$$;
+
+-- Subcadena (LIKE '%texto%') y similitud
+CREATE INDEX IF NOT EXISTS idx_usuarios_nombre_trgm
+    ON usuarios USING gin (normalizar_busqueda(nombre_usuario) gin_trgm_ops);
+
+-- Prefijo ordenado para sugerencias: con COLLATE "C" el mismo índice resuelve LIKE 'texto%' y el ORDER BY
+CREATE INDEX IF NOT EXISTS idx_usuarios_nombre_prefijo
+    ON usuarios ((normalizar_busqueda(nombre_usuario) COLLATE "C"));
+
+CREATE INDEX IF NOT EXISTS idx_roles_nombre_trgm
+    ON roles USING gin (normalizar_busqueda(nombre_rol) gin_trgm_ops);
@@ -0,0 +1,56 @@
+-- Índices para las consultas de AuditoriaRepository, UsuarioRepository y RolRepository.
+-- IndicesConsultasExplainTest verifica con EXPLAIN que ninguna de ellas recorre USUARIOS o AUDITORIA completas.
+-- En AUDITORIA se crean sobre la tabla particionada (cada partición recibe el suyo); en tablas grandes
+-- conviene ejecutar esta migración en una ventana de mantenimiento.
+
+-- Las restricciones únicas fallarían con datos duplicados: se informa cuáles antes de intentarlo
+DO
+$$
+DECLARE
+    duplicado text;
+BEGIN
+    SELECT nombre_usuario INTO duplicado FROM usuarios GROUP BY nombre_usuario HAVING count(*) > 1 LIMIT 1;
+    IF duplicado IS NOT NULL THEN
+        RAISE EXCEPTION 'USUARIOS tiene nombres de usuario repetidos (por ejemplo %); corregirlos antes de migrar', duplicado;
+    END IF;
+
+    SELECT persona_id::text INTO duplicado FROM usuarios GROUP BY persona_id HAVING count(*) > 1 LIMIT 1;
+    IF duplicado IS NOT NULL THEN
+        RAISE EXCEPTION 'USUARIOS tiene personas con más de un usuario (por ejemplo %); corregirlas antes de migrar', duplicado;
+    END IF;
+
+    SELECT nombre_rol INTO duplicado FROM roles GROUP BY nombre_rol HAVING count(*) > 1 LIMIT 1;
+    IF duplicado IS NOT NULL THEN
+        RAISE EXCEPTION 'ROLES tiene nombres repetidos (por ejemplo %); corregirlos antes de migrar', duplicado;
+    END IF;
+END;
+$$;
+
+-- USUARIOS: búsqueda por nombre (natural-id, credenciales, existe) y orden por nombre del listado sin COUNT
+CREATE UNIQUE INDEX IF NOT EXISTS uk_usuarios_nombre_usuario
+    ON usuarios (nombre_usuario);
+
+-- Un usuario por persona (findByPersonaId, existsByPersonaId)
+CREATE UNIQUE INDEX IF NOT EXISTS uk_usuarios_persona
+    ON usuarios (persona_id);
+
+-- Usuarios de un rol; también evita recorrer USUARIOS al eliminar un rol (fk_usuarios_rol)
+CREATE INDEX IF NOT EXISTS idx_usuarios_rol
+    ON usuarios (rol_id);
+
+-- ROLES: búsqueda por nombre y orden de la lista completa
+CREATE UNIQUE INDEX IF NOT EXISTS uk_roles_nombre_rol
+    ON roles (nombre_rol);
+
+-- AUDITORIA de un usuario: listado, rango de fechas, cursor y conteo; también evita recorrer AUDITORIA
+-- al eliminar un usuario (fk_auditoria_particionada_usuario)
+CREATE INDEX IF NOT EXISTS idx_auditoria_usuario_fecha
+    ON auditoria (usuario_id, fecha_hora DESC, auditoria_id DESC);
+
+-- Por acción, más recientes primero
+CREATE INDEX IF NOT EXISTS idx_auditoria_accion_fecha
+    ON auditoria (accion, fecha_hora DESC);
+
+-- Listado general, rangos de fechas y cursor (fecha_hora, auditoria_id)
+CREATE INDEX IF NOT EXISTS idx_auditoria_fecha
+    ON auditoria (fecha_hora DESC, auditoria_id DESC);
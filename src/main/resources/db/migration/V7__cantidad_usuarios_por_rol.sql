@@ -0,0 +1,18 @@
+-- Cantidad de usuarios por rol para el listado de roles con usuarios y la validación al eliminar un rol,
+-- sin recorrer USUARIOS. La aplicación la ajusta en la misma transacción que cada alta, baja o cambio de rol
+-- de un usuario (ConteoUsuariosRolRepository) y ConciliacionConteoUsuariosRol la recalcula de forma programada
+-- por si algún proceso escribe en USUARIOS sin pasar por la aplicación.
+CREATE TABLE IF NOT EXISTS roles_cantidad_usuarios (
+    rol_id   uuid   NOT NULL,
+    cantidad bigint NOT NULL,
+    CONSTRAINT roles_cantidad_usuarios_pkey PRIMARY KEY (rol_id),
+    CONSTRAINT fk_roles_cantidad_usuarios_rol FOREIGN KEY (rol_id) REFERENCES roles (rol_id) ON DELETE CASCADE
+);
+
+-- Carga inicial con los usuarios existentes
+INSERT INTO roles_cantidad_usuarios (rol_id, cantidad)
+SELECT r.rol_id, count(u.usuario_id)
+FROM roles r
+         LEFT JOIN usuarios u ON u.rol_id = r.rol_id
+GROUP BY r.rol_id
+ON CONFLICT (rol_id) DO NOTHING;
@@ -0,0 +1,34 @@
+-- Versiones para control optimista (@Version en Usuario y Rol) y para las ETag de las consultas GET.
+-- Las filas existentes empiezan en 0; Hibernate incrementa la versión en cada UPDATE.
+ALTER TABLE usuarios ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE roles ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Versión de cada tabla completa, para las ETag de los listados. La incrementa un trigger por sentencia,
+-- también para las escrituras que no pasan por Hibernate (importación por JDBC, scripts).
+-- Es una fila y no una secuencia: el nuevo valor solo se ve después del commit, junto con los datos.
+CREATE TABLE IF NOT EXISTS versiones_colecciones (
+    coleccion VARCHAR(50) PRIMARY KEY,
+    version   BIGINT      NOT NULL DEFAULT 0
+);
+
+INSERT INTO versiones_colecciones (coleccion)
+VALUES ('usuarios'), ('roles')
+ON CONFLICT (coleccion) DO NOTHING;
+
+CREATE OR REPLACE FUNCTION incrementar_version_coleccion() RETURNS trigger AS
+$$
+BEGIN
+    UPDATE versiones_colecciones SET version = version + 1 WHERE coleccion = TG_ARGV[0];
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tr_usuarios_version_coleccion ON usuarios;
+CREATE TRIGGER tr_usuarios_version_coleccion
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON usuarios
+    FOR EACH STATEMENT EXECUTE FUNCTION incrementar_version_coleccion('usuarios');
+
+DROP TRIGGER IF EXISTS tr_roles_version_coleccion ON roles;
+CREATE TRIGGER tr_roles_version_coleccion
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON roles
+    FOR EACH STATEMENT EXECUTE FUNCTION incrementar_version_coleccion('roles');
@@ -0,0 +1,43 @@
+-- crear_particion_auditoria fallaba con check_violation cuando auditoria_default ya tenía filas del mes:
+-- PostgreSQL no crea una partición si la DEFAULT contiene filas de su rango. Así ese mes no llegaba a tener
+-- partición propia y las filas seguían acumulándose en la DEFAULT.
+--
+-- Ahora, en ese caso, la partición se crea como tabla suelta, recibe las filas del mes que estaban en la
+-- DEFAULT y se adjunta. La DEFAULT se bloquea durante el movimiento para que no entren filas nuevas del
+-- mismo rango entre el traslado y el ATTACH.
+CREATE OR REPLACE FUNCTION crear_particion_auditoria(mes date) RETURNS text
+    LANGUAGE plpgsql AS
+$$
+DECLARE
+    desde  date := date_trunc('month', mes)::date;
+    hasta  date := (date_trunc('month', mes) + interval '1 month')::date;
+    nombre text := 'auditoria_p' || to_char(desde, 'YYYY_MM');
+    filas  bigint;
+BEGIN
+    IF to_regclass(nombre) IS NOT NULL THEN
+        RETURN nombre;
+    END IF;
+
+    IF to_regclass('auditoria_default') IS NOT NULL THEN
+        LOCK TABLE auditoria_default IN ACCESS EXCLUSIVE MODE;
+
+        IF EXISTS (SELECT 1 FROM auditoria_default WHERE fecha_hora >= desde AND fecha_hora < hasta) THEN
+            EXECUTE format('CREATE TABLE %I (LIKE auditoria INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', nombre);
+            EXECUTE format('WITH movidas AS (DELETE FROM auditoria_default WHERE fecha_hora >= %L AND fecha_hora < %L RETURNING *) '
+                               || 'INSERT INTO %I SELECT * FROM movidas', desde, hasta, nombre);
+            GET DIAGNOSTICS filas = ROW_COUNT;
+            EXECUTE format('ALTER TABLE auditoria ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', nombre, desde, hasta);
+            RAISE NOTICE 'Partición % creada con % filas movidas desde auditoria_default', nombre, filas;
+            RETURN nombre;
+        END IF;
+    END IF;
+
+    BEGIN
+        EXECUTE format('CREATE TABLE %I PARTITION OF auditoria FOR VALUES FROM (%L) TO (%L)', nombre, desde, hasta);
+    EXCEPTION WHEN invalid_object_definition THEN
+        -- El mes ya está dentro del rango de otra partición (auditoria_historico)
+        RETURN NULL;
+    END;
+    RETURN nombre;
+END;
+$$;
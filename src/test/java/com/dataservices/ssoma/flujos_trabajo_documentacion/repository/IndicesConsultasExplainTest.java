@@ -0,0 +1,393 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * EXPLAIN de cada consulta de AuditoriaRepository, UsuarioRepository y RolRepository sobre una base sembrada:
+ * falla si alguna recorre secuencialmente una tabla grande. Cada método del repositorio se ejecuta de verdad
+ * y se explica el SQL que Hibernate envió a JDBC, con los mismos parámetros, así que un cambio en un finder
+ * queda cubierto sin tocar la prueba. Necesita una base PostgreSQL (se migra con Flyway y lo sembrado se
+ * descarta con rollback al terminar):
+ * mvn test -Dtest=IndicesConsultasExplainTest -Dssoma.explain.url=jdbc:postgresql://localhost:5432/ssoma_explain
+ * [-Dssoma.explain.usuario=admin -Dssoma.explain.password=admin123]
+ */
+@EnabledIfSystemProperty(named = "ssoma.explain.url", matches = ".+")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Una sola transacción para toda la clase, abierta en prepararBase y revertida en descartarDatos
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndicesConsultasExplainTest {
+
+	private static final int ROLES = 200;
+	private static final int USUARIOS = 20_000;
+	private static final int AUDITORIAS = 300_000;
+
+	// Por debajo de estas filas estimadas un recorrido secuencial es lo más barato y no se reporta
+	private static final long FILAS_TABLA_GRANDE = 1_000;
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	@Autowired
+	private AuditoriaRepository auditoriaRepository;
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+	@Autowired
+	private RolRepository rolRepository;
+	@Autowired
+	private TestEntityManager entityManager;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionStatus transaccion;
+	private UUID usuarioId;
+	private UUID personaId;
+	private UUID rolId;
+	private String nombreUsuario;
+	private UUID auditoriaId;
+	private LocalDateTime ahora;
+
+	@DynamicPropertySource
+	static void baseDePrueba(DynamicPropertyRegistry registro) {
+		registro.add("spring.datasource.url", () -> System.getProperty("ssoma.explain.url"));
+		registro.add("spring.datasource.username", () -> System.getProperty("ssoma.explain.usuario", "admin"));
+		registro.add("spring.datasource.password", () -> System.getProperty("ssoma.explain.password", "admin123"));
+		registro.add("spring.jpa.show-sql", () -> "false");
+	}
+
+	@BeforeAll
+	void prepararBase() {
+		transaccion = transactionManager.getTransaction(new DefaultTransactionDefinition());
+		sembrar();
+	}
+
+	@AfterAll
+	void descartarDatos() {
+		if (transaccion != null) {
+			transactionManager.rollback(transaccion);
+		}
+	}
+
+	/**
+	 * Las consultas stream* comparten el SQL de su versión List, pero se ejecutan igual por si dejan de hacerlo.
+	 * Sin verificar, porque recorre la tabla completa por definición: el COUNT(*) sin filtro de los listados
+	 * Page (por eso existen los listados por cursor y sin COUNT).
+	 */
+	Stream<Arguments> consultas() {
+		LocalDateTime haceUnDia = ahora.minusDays(1);
+		LocalDateTime haceDiezDias = ahora.minusDays(10);
+		String patron = "0123";
+
+		return Stream.of(
+				consulta("AuditoriaRepository.findById", () -> auditoriaRepository.findById(auditoriaId)),
+				consulta("AuditoriaRepository.findByUsuarioIdOrderByFechaHoraDesc",
+						() -> auditoriaRepository.findByUsuarioIdOrderByFechaHoraDesc(usuarioId)),
+				consulta("AuditoriaRepository.findByUsuarioIdOrderByFechaHoraDesc(Pageable)",
+						() -> auditoriaRepository.findByUsuarioIdOrderByFechaHoraDesc(usuarioId, PageRequest.of(1, 20))),
+				// Acción poco frecuente; listar todos los LOGIN_EXITOSO se resuelve mejor recorriendo la tabla
+				consulta("AuditoriaRepository.findByAccion",
+						() -> auditoriaRepository.findByAccion("PASSWORD_CAMBIADA")),
+				consulta("AuditoriaRepository.findByFechaHoraBetween",
+						() -> auditoriaRepository.findByFechaHoraBetween(haceUnDia, ahora)),
+				consulta("AuditoriaRepository.findByUsuarioIdAndFechaHoraBetween",
+						() -> auditoriaRepository.findByUsuarioIdAndFechaHoraBetween(usuarioId, haceDiezDias, ahora)),
+				consulta("AuditoriaRepository.streamByFechaHoraBetween", () -> {
+					try (Stream<?> filas = auditoriaRepository.streamByFechaHoraBetween(haceUnDia, ahora)) {
+						filas.findFirst();
+					}
+				}),
+				consulta("AuditoriaRepository.streamByUsuarioIdAndFechaHoraBetween", () -> {
+					try (Stream<?> filas = auditoriaRepository.streamByUsuarioIdAndFechaHoraBetween(usuarioId, haceDiezDias, ahora)) {
+						filas.findFirst();
+					}
+				}),
+				consulta("AuditoriaRepository.streamByAccionAndFechaHoraBetween", () -> {
+					try (Stream<?> filas = auditoriaRepository.streamByAccionAndFechaHoraBetween("LOGIN_EXITOSO", haceUnDia, ahora)) {
+						filas.findFirst();
+					}
+				}),
+				consulta("AuditoriaRepository.streamByUsuarioIdAndAccionAndFechaHoraBetween", () -> {
+					try (Stream<?> filas = auditoriaRepository.streamByUsuarioIdAndAccionAndFechaHoraBetween(
+							usuarioId, "LOGIN_EXITOSO", haceDiezDias, ahora)) {
+						filas.findFirst();
+					}
+				}),
+				consulta("AuditoriaRepository.findAllByOrderByFechaHoraDesc",
+						() -> auditoriaRepository.findAllByOrderByFechaHoraDesc(PageRequest.of(10, 20))),
+				consulta("AuditoriaRepository.findPrimeraPagina",
+						() -> auditoriaRepository.findPrimeraPagina(PageRequest.of(0, 21))),
+				consulta("AuditoriaRepository.findPaginaDespuesDe",
+						() -> auditoriaRepository.findPaginaDespuesDe(haceDiezDias, auditoriaId, PageRequest.of(0, 21))),
+				consulta("AuditoriaRepository.findPrimeraPaginaPorUsuario",
+						() -> auditoriaRepository.findPrimeraPaginaPorUsuario(usuarioId, PageRequest.of(0, 21))),
+				consulta("AuditoriaRepository.findPaginaPorUsuarioDespuesDe",
+						() -> auditoriaRepository.findPaginaPorUsuarioDespuesDe(usuarioId, haceDiezDias, auditoriaId,
+								PageRequest.of(0, 21))),
+				consulta("AuditoriaRepository.countByUsuarioId", () -> auditoriaRepository.countByUsuarioId(usuarioId)),
+
+				consulta("UsuarioRepository.findById", () -> usuarioRepository.findById(usuarioId)),
+				consulta("UsuarioRepository.findVersionByUsuarioId", () -> usuarioRepository.findVersionByUsuarioId(usuarioId)),
+				consulta("UsuarioRepository.buscarPorNombreUsuario",
+						() -> usuarioRepository.buscarPorNombreUsuario(nombreUsuario)),
+				consulta("UsuarioRepository.findCredencialesByNombreUsuario",
+						() -> usuarioRepository.findCredencialesByNombreUsuario(nombreUsuario)),
+				consulta("UsuarioRepository.existsByNombreUsuario",
+						() -> usuarioRepository.existsByNombreUsuario(nombreUsuario)),
+				consulta("UsuarioRepository.findByPersonaId", () -> usuarioRepository.findByPersonaId(personaId)),
+				consulta("UsuarioRepository.existsByPersonaId", () -> usuarioRepository.existsByPersonaId(personaId)),
+				consulta("UsuarioRepository.findByRolId", () -> usuarioRepository.findByRolId(rolId)),
+				consulta("UsuarioRepository.existsByRolId", () -> usuarioRepository.existsByRolId(rolId)),
+				consulta("UsuarioRepository.findAllBy",
+						() -> usuarioRepository.findAllBy(PageRequest.of(10, 10, Sort.by("nombreUsuario")))),
+				consulta("UsuarioRepository.actualizarPasswordHash",
+						() -> usuarioRepository.actualizarPasswordHash(usuarioId, "hash")),
+				consulta("UsuarioRepository.buscarPorSubcadena",
+						() -> usuarioRepository.buscarPorSubcadena(patron, patron, PageRequest.of(0, 20))),
+				consulta("UsuarioRepository.buscarPorPrefijo",
+						() -> usuarioRepository.buscarPorPrefijo(patron, PageRequest.of(0, 20))),
+				consulta("UsuarioRepository.sugerirPorPrefijo", () -> usuarioRepository.sugerirPorPrefijo(patron, 10)),
+
+				consulta("RolRepository.findByNombreRol", () -> rolRepository.findByNombreRol("EXPLAIN_ROL_001")),
+				consulta("RolRepository.listarTodos", () -> rolRepository.listarTodos()),
+				consulta("RolRepository.existsByNombreRol", () -> rolRepository.existsByNombreRol("EXPLAIN_ROL_001")),
+				consulta("RolRepository.buscarPorSubcadena",
+						() -> rolRepository.buscarPorSubcadena("rol", "rol", PageRequest.of(0, 20))));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("consultas")
+	void noRecorreSecuencialmenteTablasGrandes(String consulta, Llamada llamada) throws Exception {
+		// Sin entidades en el contexto de persistencia, cada finder tiene que ir a la base
+		entityManager.clear();
+		List<SentenciaCapturada> sentencias = CapturaSql.capturar(llamada);
+		assertThat(sentencias).as("%s no ejecutó ninguna sentencia SQL", consulta).isNotEmpty();
+
+		for (SentenciaCapturada sentencia : sentencias) {
+			if (esConteoSinFiltro(sentencia.sql)) {
+				continue;
+			}
+			JsonNode plan = explicar(sentencia);
+
+			List<String> recorridas = new ArrayList<>();
+			recorridosSecuenciales(plan, recorridas);
+			List<String> grandes = recorridas.stream().filter(this::esTablaGrande).toList();
+
+			assertThat(grandes)
+					.as("%s recorre secuencialmente %s%n%s%n%s", consulta, grandes, sentencia.sql, plan.toPrettyString())
+					.isEmpty();
+		}
+	}
+
+	private void sembrar() {
+		jdbcTemplate.execute("INSERT INTO roles (rol_id, nombre_rol, descripcion) "
+				+ "SELECT gen_random_uuid(), 'EXPLAIN_ROL_' || lpad(g::text, 3, '0'), 'Rol sembrado para EXPLAIN' "
+				+ "FROM generate_series(1, " + ROLES + ") AS g");
+		jdbcTemplate.execute("INSERT INTO usuarios (usuario_id, persona_id, nombre_usuario, password_hash, rol_id) "
+				+ "SELECT gen_random_uuid(), gen_random_uuid(), 'explain.usuario.' || lpad(g::text, 6, '0'), 'hash', "
+				+ "r.ids[1 + g % cardinality(r.ids)] "
+				+ "FROM generate_series(1, " + USUARIOS + ") AS g, "
+				+ "(SELECT array_agg(rol_id) AS ids FROM roles WHERE nombre_rol LIKE 'EXPLAIN_ROL_%') r");
+		// Los últimos 90 días; la mayoría son inicios de sesión, como en producción
+		jdbcTemplate.execute("INSERT INTO auditoria (auditoria_id, usuario_id, accion, fecha_hora, detalles_json) "
+				+ "SELECT gen_random_uuid(), u.ids[1 + g % cardinality(u.ids)], "
+				+ "CASE WHEN g % 100 = 0 THEN 'PASSWORD_CAMBIADA' WHEN g % 10 = 0 THEN 'USUARIO_ACTUALIZADO' "
+				+ "ELSE 'LOGIN_EXITOSO' END, "
+				+ "localtimestamp - (g % (90 * 24 * 60)) * interval '1 minute', jsonb_build_object('secuencia', g) "
+				+ "FROM generate_series(1, " + AUDITORIAS + ") AS g, "
+				+ "(SELECT array_agg(usuario_id) AS ids FROM usuarios WHERE nombre_usuario LIKE 'explain.usuario.%') u");
+		jdbcTemplate.execute("ANALYZE roles, usuarios, auditoria");
+
+		Map<String, Object> usuario = jdbcTemplate.queryForMap("SELECT usuario_id, persona_id, rol_id, nombre_usuario "
+				+ "FROM usuarios WHERE nombre_usuario = 'explain.usuario.000123'");
+		usuarioId = (UUID) usuario.get("usuario_id");
+		personaId = (UUID) usuario.get("persona_id");
+		rolId = (UUID) usuario.get("rol_id");
+		nombreUsuario = (String) usuario.get("nombre_usuario");
+
+		Map<String, Object> auditoria = jdbcTemplate.queryForMap("SELECT auditoria_id, localtimestamp AS ahora FROM auditoria LIMIT 1");
+		auditoriaId = (UUID) auditoria.get("auditoria_id");
+		ahora = ((Timestamp) auditoria.get("ahora")).toLocalDateTime();
+	}
+
+	private static Arguments consulta(String nombre, Llamada llamada) {
+		return Arguments.of(nombre, llamada);
+	}
+
+	private static boolean esConteoSinFiltro(String sql) {
+		String normalizado = sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").strip();
+		return normalizado.startsWith("select count(") && !normalizado.contains(" where ");
+	}
+
+	/**
+	 * EXPLAIN del SQL capturado, repitiendo sobre el nuevo PreparedStatement los mismos set* que hizo Hibernate
+	 */
+	private JsonNode explicar(SentenciaCapturada sentencia) {
+		return jdbcTemplate.execute((ConnectionCallback<JsonNode>) conexion -> {
+			try (PreparedStatement explain = conexion.prepareStatement("EXPLAIN (FORMAT JSON) " + sentencia.sql)) {
+				for (Parametro parametro : sentencia.parametros) {
+					parametro.metodo.invoke(explain, parametro.argumentos);
+				}
+				try (ResultSet fila = explain.executeQuery()) {
+					fila.next();
+					return MAPPER.readTree(fila.getString(1)).get(0).get("Plan");
+				}
+			} catch (ReflectiveOperationException | IOException e) {
+				throw new IllegalStateException("No se pudo explicar: " + sentencia.sql, e);
+			}
+		});
+	}
+
+	private static void recorridosSecuenciales(JsonNode nodo, List<String> tablas) {
+		if ("Seq Scan".equals(nodo.path("Node Type").asText())) {
+			tablas.add(nodo.path("Relation Name").asText());
+		}
+		for (JsonNode hijo : nodo.path("Plans")) {
+			recorridosSecuenciales(hijo, tablas);
+		}
+	}
+
+	private boolean esTablaGrande(String tabla) {
+		Double filas = jdbcTemplate.query("SELECT reltuples FROM pg_class WHERE oid = to_regclass(?)",
+				rs -> rs.next() ? rs.getDouble(1) : null, tabla);
+		return filas != null && filas >= FILAS_TABLA_GRANDE;
+	}
+
+	@FunctionalInterface
+	interface Llamada {
+
+		void ejecutar() throws Exception;
+	}
+
+	private record Parametro(Method metodo, Object[] argumentos) {
+	}
+
+	private record SentenciaCapturada(String sql, List<Parametro> parametros) {
+	}
+
+	/**
+	 * Envuelve el DataSource para registrar, solo mientras dura {@link #capturar}, cada sentencia preparada
+	 * que se ejecuta y los set* de sus parámetros
+	 */
+	@TestConfiguration
+	static class CapturaSql {
+
+		private static final ThreadLocal<List<SentenciaCapturada>> CAPTURADAS = new ThreadLocal<>();
+
+		static List<SentenciaCapturada> capturar(Llamada llamada) throws Exception {
+			List<SentenciaCapturada> capturadas = new ArrayList<>();
+			CAPTURADAS.set(capturadas);
+			try {
+				llamada.ejecutar();
+			} finally {
+				CAPTURADAS.remove();
+			}
+			return capturadas;
+		}
+
+		@Bean
+		static BeanPostProcessor capturaSqlDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String nombre) {
+					return bean instanceof DataSource dataSource
+							? proxy(DataSource.class, dataSource, (objetivo, metodo, argumentos) -> {
+								Object resultado = invocar(objetivo, metodo, argumentos);
+								return resultado instanceof Connection conexion
+										? proxy(Connection.class, conexion, CapturaSql::conexion)
+										: resultado;
+							})
+							: bean;
+				}
+			};
+		}
+
+		private static Object conexion(Object conexion, Method metodo, Object[] argumentos) throws Throwable {
+			Object resultado = invocar(conexion, metodo, argumentos);
+			if (resultado instanceof PreparedStatement sentencia && metodo.getName().equals("prepareStatement")) {
+				String sql = (String) argumentos[0];
+				List<Parametro> parametros = new ArrayList<>();
+				return proxy(PreparedStatement.class, sentencia, (objetivo, llamado, valores) -> {
+					String nombre = llamado.getName();
+					if (nombre.startsWith("set") && valores != null && valores.length >= 2 && valores[0] instanceof Integer) {
+						parametros.add(new Parametro(llamado, valores.clone()));
+					} else if (nombre.equals("clearParameters")) {
+						parametros.clear();
+					} else if (nombre.startsWith("execute") && (valores == null || valores.length == 0)) {
+						List<SentenciaCapturada> capturadas = CAPTURADAS.get();
+						if (capturadas != null) {
+							capturadas.add(new SentenciaCapturada(sql, List.copyOf(parametros)));
+						}
+					}
+					return invocar(objetivo, llamado, valores);
+				});
+			}
+			return resultado;
+		}
+
+		private interface Manejador {
+
+			Object invocar(Object objetivo, Method metodo, Object[] argumentos) throws Throwable;
+		}
+
+		private static <T> T proxy(Class<T> tipo, T objetivo, Manejador manejador) {
+			InvocationHandler handler = (instancia, metodo, argumentos) -> manejador.invocar(objetivo, metodo, argumentos);
+			return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, handler));
+		}
+
+		private static Object invocar(Object objetivo, Method metodo, Object[] argumentos) throws Throwable {
+			try {
+				return metodo.invoke(objetivo, argumentos);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.security;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.config.JwtProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Sin secreto configurado cada instancia firmaría con su propia clave aleatoria: con JWT activo
+ * la aplicación tiene que negarse a arrancar en lugar de emitir tokens que las demás instancias rechazan.
+ */
+class JwtTokenProviderTest {
+
+	private static final String SECRETO = "eHh4eHh4eHh4eHh4eHh4eHh4eHh4eHh4eHh4eHh4eHg=";
+
+	@Test
+	void noArrancaSinSecretoConJwtHabilitado() {
+		JwtProperties properties = new JwtProperties();
+		properties.setHabilitado(true);
+		properties.setSecreto(" ");
+
+		assertThatThrownBy(() -> new JwtTokenProvider(properties))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("ssoma.seguridad.jwt.secreto");
+	}
+
+	@Test
+	void noArrancaSinSecretoConJwtRequerido() {
+		JwtProperties properties = new JwtProperties();
+		properties.setHabilitado(false);
+		properties.setRequerido(true);
+
+		assertThatThrownBy(() -> new JwtTokenProvider(properties))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void arrancaSinSecretoConLaConfiguracionPorDefecto() {
+		JwtProperties properties = new JwtProperties();
+
+		assertThatCode(() -> new JwtTokenProvider(properties)).doesNotThrowAnyException();
+	}
+
+	@Test
+	void arrancaConSecretoConfigurado() {
+		JwtProperties properties = new JwtProperties();
+		properties.setHabilitado(true);
+		properties.setSecreto(SECRETO);
+
+		assertThatCode(() -> new JwtTokenProvider(properties)).doesNotThrowAnyException();
+	}
+}
@@ -0,0 +1,101 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.auditoria;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Todo detalle de auditoría pasa por aquí antes del INSERT en la columna jsonb: lo que se deja pasar
+ * como JSON tiene que ser exactamente un valor que PostgreSQL acepte, y lo demás se envuelve sin perder texto.
+ */
+class NormalizadorJsonTest {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final NormalizadorJson normalizador = new NormalizadorJson(MAPPER);
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"{\"a\":1}",
+			"  {\"a\": [1, 2, {\"b\": null}]}  ",
+			"[]",
+			"\"texto\"",
+			"null",
+			"true",
+			"false",
+			"123",
+			"-1.5e3"
+	})
+	void aceptaUnUnicoValorJson(String texto) {
+		assertThat(normalizador.esJsonValido(texto)).isTrue();
+		assertThat(normalizador.normalizar(texto)).isEqualTo(texto);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"{\"a\":1} x",
+			"{\"a\":1}{\"b\":2}",
+			"123 456",
+			"{\"a\":",
+			"",
+			"   "
+	})
+	void rechazaContenidoSobranteOIncompleto(String texto) {
+		assertThat(normalizador.esJsonValido(texto)).isFalse();
+	}
+
+	@Test
+	void rechazaElEscapeDelCaracterNuloQueJsonbNoAdmite() {
+		String texto = "{\"a\":\"x\\u0000y\"}";
+
+		assertThat(normalizador.esJsonValido(texto)).isFalse();
+		assertThat(mensaje(normalizador.normalizar(texto))).isEqualTo(texto);
+	}
+
+	@Test
+	void envuelveTextoConCaracterNuloSinGenerarElEscape() {
+		String json = normalizador.normalizar("antes\0después");
+
+		assertThat(json).doesNotContain("\\u0000");
+		assertThat(mensaje(json)).isEqualTo("antesdespués");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"Usuario eliminado", "nuevo usuario", "trueno", "true story", "falso", "nulo", "no aplica"})
+	void envuelveTextoLibre(String texto) {
+		assertThat(normalizador.esJsonValido(texto)).isFalse();
+		assertThat(mensaje(normalizador.normalizar(texto))).isEqualTo(texto);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"Dijo \"hola\"", "C:\\temp\\archivo.txt", "\\\"", "{\"a\": \"sin cerrar"})
+	void envuelveComillasYBarrasInvertidasSinAlterarlas(String texto) {
+		String json = normalizador.envolver(texto);
+
+		assertThat(normalizador.esJsonValido(json)).isTrue();
+		assertThat(mensaje(json)).isEqualTo(texto);
+	}
+
+	@Test
+	void serializaObjetosYNulos() throws Exception {
+		assertThat(normalizador.normalizar((Object) null)).isEqualTo("null");
+		assertThat(normalizador.normalizar((String) null)).isEqualTo("null");
+		assertThat(MAPPER.readTree(normalizador.normalizar(Map.of("cantidad", 3))).get("cantidad").asInt()).isEqualTo(3);
+	}
+
+	private static String mensaje(String json) {
+		try {
+			JsonNode nodo = MAPPER.readTree(json);
+			assertThat(nodo.isObject()).as("se esperaba un objeto envuelto: %s", json).isTrue();
+			return nodo.get("mensaje").asText();
+		} catch (Exception e) {
+			throw new AssertionError("JSON inválido: " + json, e);
+		}
+	}
+}
@@ -0,0 +1,241 @@
+package com.dataservices.ssoma.flujos_trabajo_documentacion.service.impl;
+
+import com.dataservices.ssoma.flujos_trabajo_documentacion.dto.UsuarioDTO;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Rol;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.entity.Usuario;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.DuplicatedResourceException;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.exception.ResourceNotFoundException;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.mapper.UsuarioMapperImpl;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.ConteoUsuariosRolRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.EstimacionFilasRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.RolRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.UsuarioRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.repository.VersionColeccionRepository;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.CachePrincipales;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.CustomUserDetailsService;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.security.JwtTokenProvider;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.AuditoriaService;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.cache.CatalogoRoles;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.service.usuarios.ImportadorUsuarios;
+import com.dataservices.ssoma.flujos_trabajo_documentacion.util.PasswordUtil;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cada llamada a un repositorio es una sentencia SQL: las consultas por listado deben ser constantes,
+ * sin importar cuántos usuarios se devuelvan.
+ */
+@ExtendWith(MockitoExtension.class)
+class UsuarioServiceImplTest {
+
+	private static final List<Rol> ROLES = List.of(
+			Rol.builder().rolId(UUID.randomUUID()).nombreRol("ADMIN").build(),
+			Rol.builder().rolId(UUID.randomUUID()).nombreRol("OPERADOR").build(),
+			Rol.builder().rolId(UUID.randomUUID()).nombreRol("CONSULTA").build());
+
+	@Mock
+	private UsuarioRepository usuarioRepository;
+
+	@Mock
+	private RolRepository rolRepository;
+
+	@Mock
+	private PasswordUtil passwordUtil;
+
+	@Mock
+	private AuditoriaService auditoriaService;
+
+	@Mock
+	private CustomUserDetailsService userDetailsService;
+
+	@Mock
+	private CachePrincipales cachePrincipales;
+
+	@Mock
+	private JwtTokenProvider jwtTokenProvider;
+
+	@Mock
+	private ImportadorUsuarios importadorUsuarios;
+
+	@Mock
+	private EstimacionFilasRepository estimacionFilasRepository;
+
+	@Mock
+	private ConteoUsuariosRolRepository conteoUsuariosRolRepository;
+
+	@Mock
+	private VersionColeccionRepository versionColeccionRepository;
+
+	private UsuarioServiceImpl usuarioService;
+
+	private CatalogoRoles catalogoRoles;
+
+	@BeforeEach
+	void setUp() {
+		catalogoRoles = new CatalogoRoles(rolRepository, versionColeccionRepository, Duration.ofSeconds(10));
+		usuarioService = new UsuarioServiceImpl(usuarioRepository, catalogoRoles,
+				new UsuarioMapperImpl(), passwordUtil, auditoriaService, userDetailsService, cachePrincipales,
+				jwtTokenProvider, importadorUsuarios, estimacionFilasRepository, conteoUsuariosRolRepository,
+				versionColeccionRepository);
+		when(rolRepository.findAll()).thenReturn(ROLES);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 20, 500})
+	void obtenerTodosLosUsuariosResuelveRolesConUnaConsulta(int cantidad) {
+		when(usuarioRepository.findAll()).thenReturn(usuarios(cantidad));
+
+		List<UsuarioDTO> resultado = usuarioService.obtenerTodosLosUsuarios();
+
+		assertThat(resultado).hasSize(cantidad).allSatisfy(usuario -> assertThat(usuario.getNombreRol()).isNotNull());
+		verify(usuarioRepository, times(1)).findAll();
+		// Solo la carga inicial del catálogo de roles
+		verify(rolRepository, times(1)).findAll();
+		verifyNoMoreInteractions(usuarioRepository, rolRepository);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 20, 500})
+	void obtenerUsuariosPaginadosResuelveRolesConUnaConsulta(int tamanoPagina) {
+		Pageable pageable = PageRequest.of(0, tamanoPagina);
+		Page<Usuario> pagina = new PageImpl<>(usuarios(tamanoPagina), pageable, 10_000);
+		when(usuarioRepository.findAll(pageable)).thenReturn(pagina);
+
+		Page<UsuarioDTO> resultado = usuarioService.obtenerTodosLosUsuarios(pageable);
+
+		assertThat(resultado.getContent()).hasSize(tamanoPagina)
+				.allSatisfy(usuario -> assertThat(usuario.getNombreRol()).isNotNull());
+		verify(usuarioRepository, times(1)).findAll(pageable);
+		verify(rolRepository, times(1)).findAll();
+		verifyNoMoreInteractions(usuarioRepository, rolRepository);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 20, 500})
+	void obtenerUsuariosPorRolResuelveRolesConUnaConsulta(int cantidad) {
+		UUID rolId = ROLES.get(0).getRolId();
+		when(usuarioRepository.findByRolId(rolId)).thenReturn(usuarios(cantidad));
+
+		List<UsuarioDTO> resultado = usuarioService.obtenerUsuariosPorRol(rolId);
+
+		assertThat(resultado).hasSize(cantidad);
+		verify(usuarioRepository, times(1)).findByRolId(rolId);
+		verify(rolRepository, times(1)).findAll();
+		verifyNoMoreInteractions(usuarioRepository, rolRepository);
+	}
+
+	@Test
+	void crearUsuarioValidaDuplicadosEnElMismoInsert() {
+		when(passwordUtil.hashPassword("secreta")).thenReturn("hash");
+		when(usuarioRepository.saveAndFlush(any(Usuario.class))).thenAnswer(invocacion -> {
+			Usuario usuario = invocacion.getArgument(0);
+			usuario.setUsuarioId(UUID.randomUUID());
+			return usuario;
+		});
+
+		UsuarioDTO creado = usuarioService.crearUsuario(nuevoUsuario());
+
+		assertThat(creado.getUsuarioId()).isNotNull();
+		verify(usuarioRepository, times(1)).saveAndFlush(any(Usuario.class));
+		verify(conteoUsuariosRolRepository, times(1)).ajustar(ROLES.get(0).getRolId(), 1);
+		verifyNoMoreInteractions(usuarioRepository);
+	}
+
+	@ParameterizedTest
+	@CsvSource({
+			"uk_usuarios_nombre_usuario, false, DUPLICADO",
+			"uk_usuarios_persona, false, DUPLICADO",
+			"fk_usuarios_rol, false, NO_ENCONTRADO",
+			// Servidor con mensajes en español: Hibernate no extrae el nombre de la restricción
+			"uk_usuarios_nombre_usuario, true, DUPLICADO"
+	})
+	void crearUsuarioTraduceViolacionesDeRestricciones(String restriccion, boolean mensajeLocalizado, String resultado) {
+		SQLException causa = new SQLException(mensajeLocalizado
+				? "ERROR: llave duplicada viola restricción de unicidad «" + restriccion + "»"
+				: "ERROR: duplicate key value violates unique constraint \"" + restriccion + "\"");
+		when(passwordUtil.hashPassword("secreta")).thenReturn("hash");
+		when(usuarioRepository.saveAndFlush(any(Usuario.class))).thenThrow(new DataIntegrityViolationException("insert",
+				new ConstraintViolationException("insert", causa, mensajeLocalizado ? null : restriccion)));
+
+		assertThatThrownBy(() -> usuarioService.crearUsuario(nuevoUsuario()))
+				.isInstanceOf(resultado.equals("DUPLICADO")
+						? DuplicatedResourceException.class
+						: ResourceNotFoundException.class);
+	}
+
+	@Test
+	void versionUsuarioIncluyeLaVersionDelCatalogoDeRoles() {
+		Usuario usuario = usuarios(1).get(0);
+		when(usuarioRepository.findVersionByUsuarioId(usuario.getUsuarioId())).thenReturn(Optional.of(3L));
+		when(versionColeccionRepository.version(VersionColeccionRepository.ROLES)).thenReturn(7L, 8L);
+
+		assertThat(usuarioService.obtenerVersionUsuario(usuario.getUsuarioId())).isEqualTo("3-7");
+
+		// Un rol renombrado cambia nombreRol en la respuesta aunque el usuario no cambie
+		catalogoRoles.invalidar();
+		assertThat(usuarioService.obtenerVersionUsuario(usuario.getUsuarioId())).isEqualTo("3-8");
+	}
+
+	@Test
+	void rolesDesconocidosNoRecarganElCatalogoEnCadaConsulta() {
+		when(versionColeccionRepository.version(VersionColeccionRepository.ROLES)).thenReturn(1L, 2L);
+		catalogoRoles.obtenerTodos();
+
+		// Como una importación con miles de filas que apuntan a un rol inexistente
+		for (int i = 0; i < 1000; i++) {
+			assertThat(catalogoRoles.existePorId(UUID.randomUUID())).isFalse();
+		}
+
+		// Carga inicial más una sola recarga por fallo dentro del intervalo (comprobación de versión y recarga)
+		verify(rolRepository, times(2)).findAll();
+		verify(versionColeccionRepository, times(3)).version(VersionColeccionRepository.ROLES);
+	}
+
+	private static UsuarioDTO nuevoUsuario() {
+		return UsuarioDTO.builder()
+				.personaId(UUID.randomUUID())
+				.nombreUsuario("nuevo")
+				.password("secreta")
+				.rolId(ROLES.get(0).getRolId())
+				.build();
+	}
+
+	private static List<Usuario> usuarios(int cantidad) {
+		return IntStream.range(0, cantidad)
+				.mapToObj(i -> Usuario.builder()
+						.usuarioId(UUID.randomUUID())
+						.personaId(UUID.randomUUID())
+						.nombreUsuario("usuario" + i)
+						.passwordHash("hash")
+						.rolId(ROLES.get(i % ROLES.size()).getRolId())
+						.build())
+				.toList();
+	}
+}
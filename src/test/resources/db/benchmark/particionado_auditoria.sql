@@ -0,0 +1,120 @@
+-- Comparación de latencia de consultas por rango de fechas: AUDITORIA sin particionar vs. particionada por mes.
+--
+-- Uso (base de pruebas, nunca producción):
+--   psql -d ssoma_bench -v filas=5000000 -f particionado_auditoria.sql
+--
+-- Crea el esquema "bench" con dos copias de los mismos datos (24 meses) y ejecuta cada consulta
+-- con EXPLAIN (ANALYZE, BUFFERS) sobre ambas. Comparar "Execution Time" y las particiones recorridas.
+
+\set ON_ERROR_STOP on
+\if :{?filas}
+\else
+    \set filas 5000000
+\endif
+\timing on
+
+DROP SCHEMA IF EXISTS bench CASCADE;
+CREATE SCHEMA bench;
+
+CREATE TABLE bench.auditoria_plana (
+    auditoria_id  uuid         NOT NULL PRIMARY KEY,
+    usuario_id    uuid         NOT NULL,
+    accion        varchar(255) NOT NULL,
+    fecha_hora    timestamp(6) NOT NULL,
+    detalles_json jsonb
+);
+
+CREATE TABLE bench.auditoria_particionada (
+    auditoria_id  uuid         NOT NULL,
+    usuario_id    uuid         NOT NULL,
+    accion        varchar(255) NOT NULL,
+    fecha_hora    timestamp(6) NOT NULL,
+    detalles_json jsonb,
+    PRIMARY KEY (auditoria_id, fecha_hora)
+) PARTITION BY RANGE (fecha_hora);
+
+DO
+$$
+DECLARE
+    mes date := date_trunc('month', now() - interval '23 month')::date;
+BEGIN
+    FOR i IN 0..23 LOOP
+        EXECUTE format('CREATE TABLE bench.auditoria_p%s PARTITION OF bench.auditoria_particionada FOR VALUES FROM (%L) TO (%L)',
+                       to_char(mes, 'YYYY_MM'), mes, (mes + interval '1 month')::date);
+        mes := (mes + interval '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+-- 2.000 usuarios y 6 acciones, fechas uniformes en los últimos 24 meses
+CREATE TEMP TABLE datos AS
+SELECT gen_random_uuid()                                                                   AS auditoria_id,
+       ('00000000-0000-0000-0000-' || lpad((g % 2000)::text, 12, '0'))::uuid               AS usuario_id,
+       (ARRAY ['LOGIN_EXITOSO','USUARIO_CREADO','USUARIO_ACTUALIZADO',
+               'PASSWORD_CAMBIADA','PASSWORD_RESETEADA','USUARIO_ELIMINADO'])[1 + g % 6]   AS accion,
+       date_trunc('month', now() - interval '23 month') + random() * interval '730 days'   AS fecha_hora,
+       jsonb_build_object('mensaje', 'evento ' || g)                                       AS detalles_json
+FROM generate_series(1, :filas) AS g;
+
+DELETE FROM datos WHERE fecha_hora >= date_trunc('month', now()) + interval '1 month';
+
+INSERT INTO bench.auditoria_plana SELECT * FROM datos;
+INSERT INTO bench.auditoria_particionada SELECT * FROM datos;
+
+-- Índices equivalentes a los que usan los finders de AuditoriaRepository
+CREATE INDEX ON bench.auditoria_plana (fecha_hora DESC);
+CREATE INDEX ON bench.auditoria_plana (usuario_id, fecha_hora DESC);
+CREATE INDEX ON bench.auditoria_particionada (fecha_hora DESC);
+CREATE INDEX ON bench.auditoria_particionada (usuario_id, fecha_hora DESC);
+
+VACUUM ANALYZE bench.auditoria_plana;
+VACUUM ANALYZE bench.auditoria_particionada;
+
+\echo '=== findByFechaHoraBetween: un mes ==='
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT * FROM bench.auditoria_plana
+WHERE fecha_hora BETWEEN date_trunc('month', now() - interval '6 month')
+                     AND date_trunc('month', now() - interval '5 month')
+ORDER BY fecha_hora DESC;
+
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT * FROM bench.auditoria_particionada
+WHERE fecha_hora BETWEEN date_trunc('month', now() - interval '6 month')
+                     AND date_trunc('month', now() - interval '5 month')
+ORDER BY fecha_hora DESC;
+
+\echo '=== findByUsuarioIdAndFechaHoraBetween: un usuario, una semana ==='
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT * FROM bench.auditoria_plana
+WHERE usuario_id = '00000000-0000-0000-0000-000000000042'
+  AND fecha_hora BETWEEN now() - interval '60 days' AND now() - interval '53 days'
+ORDER BY fecha_hora DESC;
+
+EXPLAIN (ANALYZE, BUFFERS, SUMMARY)
+SELECT * FROM bench.auditoria_particionada
+WHERE usuario_id = '00000000-0000-0000-0000-000000000042'
+  AND fecha_hora BETWEEN now() - interval '60 days' AND now() - interval '53 days'
+ORDER BY fecha_hora DESC;
+
+\echo '=== Retención: borrar los 6 meses más antiguos ==='
+BEGIN;
+DELETE FROM bench.auditoria_plana WHERE fecha_hora < date_trunc('month', now() - interval '17 month');
+ROLLBACK;
+
+BEGIN;
+DO
+$$
+DECLARE
+    particion record;
+BEGIN
+    FOR particion IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'bench.auditoria_particionada'::regclass
+          AND c.relname < 'auditoria_p' || to_char(now() - interval '17 month', 'YYYY_MM')
+    LOOP
+        EXECUTE format('ALTER TABLE bench.auditoria_particionada DETACH PARTITION bench.%I', particion.relname);
+        EXECUTE format('DROP TABLE bench.%I', particion.relname);
+    END LOOP;
+END;
+$$;
+ROLLBACK;